@@ -0,0 +1,12 @@
+-- Script to keep process update digests in the email outbox until their window closes
+-- Run after add-email-outbox.sql
+
+-- Rows of one digest share a digest_key (the user id) and are merged into one
+-- email when the first of them is due
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS digest_key VARCHAR(255);
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS digest_process VARCHAR(100);
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS digest_details TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_digest_key
+    ON email_outbox(digest_key, status)
+    WHERE digest_key IS NOT NULL;
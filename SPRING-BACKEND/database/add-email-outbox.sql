@@ -0,0 +1,35 @@
+-- Script to create the email outbox drained by the backend mail workers
+-- Run after the base schema has been applied
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id UUID DEFAULT uuid_generate_v4() PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    html_body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'pending',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    locked_at TIMESTAMP WITH TIME ZONE,
+    last_error TEXT,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt
+    ON email_outbox(status, next_attempt_at);
+
+ALTER TABLE email_outbox ENABLE ROW LEVEL SECURITY;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_policies
+        WHERE schemaname = current_schema()
+          AND tablename = 'email_outbox'
+          AND policyname = 'Allow backend access'
+    ) THEN
+        EXECUTE 'CREATE POLICY "Allow backend access" ON email_outbox '
+              || 'FOR ALL USING (auth.role() = ''service_role'')';
+    END IF;
+END $$;
@@ -0,0 +1,9 @@
+-- Script to add the indexes used by notification keyset pagination and unread counts
+-- Run after the base schema has been applied
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created_id
+    ON notifications(user_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+    ON notifications(user_id)
+    WHERE is_read = false;
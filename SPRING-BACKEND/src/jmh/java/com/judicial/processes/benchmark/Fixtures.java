@@ -0,0 +1,31 @@
+package com.judicial.processes.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Portal responses recorded for a single process, shipped under {@code fixtures/}.
+ */
+final class Fixtures {
+
+    static final String NUMERO_RADICACION = "05001310300320190045600";
+
+    static final String PORTAL_URL =
+        "https://consultaprocesos.ramajudicial.gov.co/Procesos/NumeroRadicacion?numeroRadicacion=" + NUMERO_RADICACION;
+
+    private Fixtures() {
+    }
+
+    static String read(String name) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream("fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
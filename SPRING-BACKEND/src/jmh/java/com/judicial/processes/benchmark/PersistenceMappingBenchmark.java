@@ -0,0 +1,90 @@
+package com.judicial.processes.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.dto.ProcessActivity;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.dto.ProcessDocument;
+import com.judicial.processes.dto.ProcessSubject;
+import com.judicial.processes.service.JudicialService;
+import com.judicial.processes.service.PortalResponseParser;
+import com.judicial.processes.service.ProcessRecordMapper;
+
+/**
+ * Building the Supabase rows written by saveProcessData and the response map of
+ * convertProcessDataToMap, for the recorded process.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceMappingBenchmark {
+
+    private static final String PROCESS_ID = "3f1c2a9e-8d47-4b0e-9a55-6c2d1e7f8b90";
+
+    private static final String UPDATED_AT = "2024-09-18T10:15:30.123";
+
+    private final JudicialService judicialService = new JudicialService();
+
+    private ProcessData processData;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        processData = PortalResponseParser.parseBasicInfo(
+            objectMapper.readTree(Fixtures.read("numero-radicacion.json")), Fixtures.NUMERO_RADICACION, Fixtures.PORTAL_URL);
+        processData.setActuaciones(PortalResponseParser.parseActivities(objectMapper.readTree(Fixtures.read("actuaciones.json"))));
+        processData.setSujetos(PortalResponseParser.parseSubjects(objectMapper.readTree(Fixtures.read("sujetos-procesales.json"))));
+        processData.setDocumentos(PortalResponseParser.parseDocuments(objectMapper.readTree(Fixtures.read("documentos.json"))));
+    }
+
+    @Benchmark
+    public Map<String, Object> processRecord() {
+        return ProcessRecordMapper.toProcessRecord(processData, UPDATED_AT);
+    }
+
+    @Benchmark
+    public void activityRecords(Blackhole blackhole) {
+        List<ProcessActivity> activities = processData.getActuaciones();
+        for (ProcessActivity activity : activities) {
+            blackhole.consume(ProcessRecordMapper.toActivityRecord(PROCESS_ID, activity));
+        }
+    }
+
+    @Benchmark
+    public void subjectRecords(Blackhole blackhole) {
+        for (ProcessSubject subject : processData.getSujetos()) {
+            blackhole.consume(ProcessRecordMapper.toSubjectRecord(PROCESS_ID, subject));
+        }
+    }
+
+    @Benchmark
+    public void documentRecords(Blackhole blackhole) {
+        for (ProcessDocument document : processData.getDocumentos()) {
+            blackhole.consume(ProcessRecordMapper.toDocumentRecord(PROCESS_ID, document));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> convertProcessDataToMap() {
+        return judicialService.convertProcessDataToMap(processData);
+    }
+}
@@ -0,0 +1,99 @@
+package com.judicial.processes.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.dto.ProcessActivity;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.dto.ProcessDocument;
+import com.judicial.processes.dto.ProcessSubject;
+import com.judicial.processes.service.PortalResponseParser;
+
+/**
+ * Parsing of recorded portal responses, as done by JudicialScrapingService for
+ * every scrape. The *FromString variants include Jackson's readTree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortalParsingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String basicInfoJson;
+    private String activitiesJson;
+
+    private JsonNode basicInfo;
+    private JsonNode activities;
+    private JsonNode subjects;
+    private JsonNode documents;
+
+    private String sujetosProcesales;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        basicInfoJson = Fixtures.read("numero-radicacion.json");
+        activitiesJson = Fixtures.read("actuaciones.json");
+
+        basicInfo = objectMapper.readTree(basicInfoJson);
+        activities = objectMapper.readTree(activitiesJson);
+        subjects = objectMapper.readTree(Fixtures.read("sujetos-procesales.json"));
+        documents = objectMapper.readTree(Fixtures.read("documentos.json"));
+
+        sujetosProcesales = basicInfo.get("procesos").get(0).get("sujetosProcesales").asText();
+    }
+
+    @Benchmark
+    public ProcessData basicInfo() {
+        return PortalResponseParser.parseBasicInfo(basicInfo, Fixtures.NUMERO_RADICACION, Fixtures.PORTAL_URL);
+    }
+
+    @Benchmark
+    public ProcessData basicInfoFromString() throws JsonProcessingException {
+        return PortalResponseParser.parseBasicInfo(objectMapper.readTree(basicInfoJson), Fixtures.NUMERO_RADICACION, Fixtures.PORTAL_URL);
+    }
+
+    @Benchmark
+    public void sujetosProcesalesParties(Blackhole blackhole) {
+        blackhole.consume(PortalResponseParser.extractDemandante(sujetosProcesales));
+        blackhole.consume(PortalResponseParser.extractDemandado(sujetosProcesales));
+    }
+
+    @Benchmark
+    public List<ProcessActivity> activities() {
+        return PortalResponseParser.parseActivities(activities);
+    }
+
+    @Benchmark
+    public List<ProcessActivity> activitiesFromString() throws JsonProcessingException {
+        return PortalResponseParser.parseActivities(objectMapper.readTree(activitiesJson));
+    }
+
+    @Benchmark
+    public List<ProcessSubject> subjects() {
+        return PortalResponseParser.parseSubjects(subjects);
+    }
+
+    @Benchmark
+    public List<ProcessDocument> documents() {
+        return PortalResponseParser.parseDocuments(documents);
+    }
+}
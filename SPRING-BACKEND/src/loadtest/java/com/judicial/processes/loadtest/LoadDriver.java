@@ -0,0 +1,297 @@
+package com.judicial.processes.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Closed-loop load generator for the backend: each worker runs the selected
+ * workload back to back until the duration elapses, then throughput and latency
+ * percentiles are reported per operation. Requests during the warmup are not
+ * recorded.
+ *
+ * Start the simulators and the backend against them first, with rate limiting
+ * off so the single client address is not throttled:
+ *
+ * <pre>
+ * mvn -Ploadtest compile exec:java
+ * PORTAL_BASE_URL=http://localhost:9090 PORTAL_API_URL=http://localhost:9090 \
+ *     SUPABASE_URL=http://localhost:9091 SUPABASE_ANON_KEY=anon SUPABASE_SERVICE_ROLE_KEY=service \
+ *     JWT_SECRET=$SECRET RATE_LIMIT_ENABLED=false mvn spring-boot:run
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.judicial.processes.loadtest.LoadDriver \
+ *     -Dexec.args="--workload=mixed --concurrency=64 --duration=120 --jwt-secret=$SECRET"
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final String[] SEARCH_TERMS = { "BANCO", "RESTREPO", "JUZGADO", "ANDES", "MEDELLÍN", "CASTAÑO" };
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String target;
+    private final String workload;
+    private final List<String> radicaciones;
+    private final double hotShare;
+    private final SecretKey jwtKey;
+    private final Duration requestTimeout;
+
+    LoadDriver(String target, String workload, List<String> radicaciones, double hotShare, SecretKey jwtKey, Duration requestTimeout) {
+        this.target = target;
+        this.workload = workload;
+        this.radicaciones = radicaciones;
+        this.hotShare = hotShare;
+        this.jwtKey = jwtKey;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String workload = options.get("workload", "mixed");
+        if (!List.of("consult", "search", "monitor", "mixed").contains(workload)) {
+            throw new IllegalArgumentException("--workload must be consult, search, monitor or mixed");
+        }
+
+        String secret = options.get("jwt-secret", System.getenv("JWT_SECRET"));
+        if ((workload.equals("monitor") || workload.equals("mixed")) && (secret == null || secret.isBlank())) {
+            throw new IllegalArgumentException("--jwt-secret (the backend's JWT_SECRET) is needed to sign monitor requests");
+        }
+
+        LoadDriver driver = new LoadDriver(
+            options.get("target", "http://localhost:8080"),
+            workload,
+            radicaciones(options.getInt("radicaciones", 500), options.getLong("seed", 42)),
+            options.getDouble("hot-share", 0.8),
+            secret != null && !secret.isBlank() ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)) : null,
+            Duration.ofSeconds(options.getLong("timeout", 60)));
+
+        driver.run(options.getInt("concurrency", 32),
+            Duration.ofSeconds(options.getLong("warmup", 10)),
+            Duration.ofSeconds(options.getLong("duration", 60)));
+    }
+
+    void run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        System.out.printf("Running '%s' against %s with %d workers: %ds warmup, %ds measured%n",
+            workload, target, concurrency, warmup.toSeconds(), duration.toSeconds());
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, Samples>>> results = new ArrayList<>();
+        for (int index = 0; index < concurrency; index++) {
+            results.add(workers.submit(() -> work(measureFrom, deadline)));
+        }
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Future<Map<String, Samples>> result : results) {
+            result.get().forEach((operation, samples) -> merged.computeIfAbsent(operation, key -> new Samples()).addAll(samples));
+        }
+        workers.shutdown();
+
+        report(merged, duration);
+    }
+
+    private Map<String, Samples> work(long measureFrom, long deadline) {
+        Map<String, Samples> samples = new TreeMap<>();
+        String userId = UUID.randomUUID().toString();
+        String token = jwtKey != null ? token(userId) : null;
+
+        while (System.nanoTime() < deadline) {
+            String operation = nextOperation();
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = execute(operation, token);
+            } catch (Exception e) {
+                status = -1;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            if (start >= measureFrom) {
+                samples.computeIfAbsent(operation, key -> new Samples()).add(elapsed, status);
+            }
+        }
+        return samples;
+    }
+
+    private String nextOperation() {
+        if (!workload.equals("mixed")) {
+            return workload;
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        return roll < 0.7 ? "consult" : roll < 0.9 ? "search" : "monitor";
+    }
+
+    private int execute(String operation, String token) throws Exception {
+        String numero = pickRadicacion();
+        return switch (operation) {
+            case "consult" -> send(post("/api/judicial/consult", "{\"numeroRadicacion\":\"" + numero + "\"}", null));
+            case "search" -> {
+                String term = SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+                yield send(get("/api/judicial/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8), null));
+            }
+            case "monitor" -> {
+                int status = send(post("/api/judicial/monitor", "{\"numeroRadicacion\":\"" + numero + "\"}", token));
+                int listed = send(get("/api/judicial/monitored", token));
+                yield status >= 400 ? status : listed;
+            }
+            default -> throw new IllegalStateException(operation);
+        };
+    }
+
+    /**
+     * A radicación where the first {@code 1 - hotShare} of the pool receives
+     * {@code hotShare} of the traffic, so caches see a realistic hot set.
+     */
+    private String pickRadicacion() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hotSize = Math.max(1, (int) (radicaciones.size() * (1 - hotShare)));
+        int index = random.nextDouble() < hotShare
+            ? random.nextInt(hotSize)
+            : random.nextInt(radicaciones.size());
+        return radicaciones.get(index);
+    }
+
+    private HttpRequest.Builder get(String path, String token) {
+        return request(path, token).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json, String token) {
+        return request(path, token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + path))
+            .timeout(requestTimeout)
+            .header("Accept", "application/json")
+            .header("User-Agent", "judicial-load-driver");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String token(String userId) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .subject(userId)
+            .audience().add("authenticated").and()
+            .claim("role", "authenticated")
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plus(Duration.ofHours(6))))
+            .signWith(jwtKey)
+            .compact();
+    }
+
+    private static List<String> radicaciones(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> numbers = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            // 23 digits: DANE code, court, year and a consecutive, like real radicaciones
+            numbers.add(String.format("05001%02d%02d%03d%04d%05d%02d",
+                31 + random.nextInt(10), random.nextInt(100), 1 + random.nextInt(20),
+                2015 + random.nextInt(10), random.nextInt(100_000), random.nextInt(100)));
+        }
+        return numbers;
+    }
+
+    private void report(Map<String, Samples> results, Duration duration) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%-10s %8s %9s %8s %8s %8s %8s %8s %8s  %s%n",
+            "operation", "requests", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms", "errors", "status codes");
+
+        long total = 0;
+        for (Map.Entry<String, Samples> entry : results.entrySet()) {
+            Samples samples = entry.getValue();
+            total += samples.size();
+            System.out.printf("%-10s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f %8d  %s%n",
+                entry.getKey(), samples.size(), samples.size() / seconds,
+                samples.percentileMillis(0.50), samples.percentileMillis(0.90), samples.percentileMillis(0.95),
+                samples.percentileMillis(0.99), samples.percentileMillis(1.0), samples.errors(), samples.statusCounts());
+        }
+        System.out.printf("%-10s %8d %9.1f%n", "total", total, total / seconds);
+    }
+
+    /**
+     * Latencies and status codes recorded by one worker, merged at the end.
+     */
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        void add(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            other.statuses.forEach((status, count) -> statuses.merge(status, count, Integer::sum));
+        }
+
+        int size() {
+            return size;
+        }
+
+        long errors() {
+            // Not found is a valid answer for unknown radicaciones
+            return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() < 0 || (entry.getKey() >= 400 && entry.getKey() != 404))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        }
+
+        Map<Integer, Integer> statusCounts() {
+            return statuses;
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.judicial.processes.loadtest;
+
+import java.io.IOException;
+
+/**
+ * Runs the portal and PostgREST simulators together until the process is
+ * stopped. Portal options are given as-is ({@code --latency}, {@code --error-rate},
+ * ...) and PostgREST options with a {@code db-} prefix ({@code --db-latency}).
+ */
+public class LoadTestSimulators {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = new Options(args);
+
+        PortalSimulator portal = PortalSimulator.fromOptions(options, "");
+        PostgrestSimulator postgrest = PostgrestSimulator.fromOptions(options, "db-");
+
+        portal.start(options.getInt("port", 9090), options.getInt("threads", 200));
+        postgrest.start(options.getInt("db-port", 9091), options.getInt("db-threads", 100));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            portal.stop();
+            postgrest.stop();
+        }));
+
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,364 @@
+package com.judicial.processes.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stand-in for consultaprocesos.ramajudicial.gov.co serving the endpoints the
+ * scraper calls. Every radicación maps deterministically to the same process,
+ * so repeated consults see stable data; a configurable share of radicaciones
+ * does not exist, and requests can be delayed or failed at random. With
+ * {@code --subjects-methods=GET} the subjects endpoint answers 405 to POSTs, as
+ * the real portal does at times.
+ *
+ * <pre>
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.judicial.processes.loadtest.PortalSimulator \
+ *     -Dexec.args="--port=9090 --latency=250 --jitter=150 --tail-rate=0.02 --tail=8000 --error-rate=0.01"
+ * </pre>
+ */
+public class PortalSimulator {
+
+    private static final String[] ACTUACIONES = {
+        "Fijacion Estado", "Auto Decide", "Recepción Memorial", "Auto Requiere", "Al Despacho",
+        "Notificación Personal", "Constancia Secretarial", "Auto Ordena Seguir Adelante Ejecución", "Traslado"
+    };
+
+    private static final String[] ANOTACIONES = {
+        "SE ALLEGA MEMORIAL POR PARTE DEL APODERADO DE LA PARTE DEMANDANTE SOLICITANDO IMPULSO PROCESAL.",
+        "SE REQUIERE A LA PARTE DEMANDANTE PARA QUE DENTRO DEL TÉRMINO DE TREINTA (30) DÍAS CUMPLA CON LA CARGA PROCESAL.",
+        "ACTUACIÓN REGISTRADA AUTOMÁTICAMENTE.",
+        ""
+    };
+
+    private static final String[] NOMBRES = {
+        "MARÍA FERNANDA RESTREPO GÓMEZ", "JUAN CARLOS OSPINA ARANGO", "INVERSIONES LOS ANDES S.A.S.",
+        "BANCO POPULAR S.A.", "LUZ ADRIANA MEJÍA RUIZ", "CONSTRUCTORA EL NOGAL LTDA", "PEDRO PABLO CASTAÑO"
+    };
+
+    private static final String[] DESPACHOS = {
+        "JUZGADO 003 CIVIL DEL CIRCUITO DE MEDELLÍN ", "JUZGADO 012 CIVIL MUNICIPAL DE BOGOTÁ ",
+        "JUZGADO 001 LABORAL DEL CIRCUITO DE CALI ", "TRIBUNAL SUPERIOR DE BARRANQUILLA - SALA CIVIL "
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimulatedLatency latency;
+    private final double errorRate;
+    private final double notFoundRate;
+    private final int pageSize;
+    private final Set<String> subjectsMethods;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private HttpServer server;
+
+    public PortalSimulator(SimulatedLatency latency, double errorRate, double notFoundRate, int pageSize,
+            Set<String> subjectsMethods) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.notFoundRate = notFoundRate;
+        this.pageSize = pageSize;
+        this.subjectsMethods = subjectsMethods;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options(args);
+        PortalSimulator simulator = fromOptions(options, "");
+        simulator.start(options.getInt("port", 9090), options.getInt("threads", 200));
+    }
+
+    static PortalSimulator fromOptions(Options options, String prefix) {
+        SimulatedLatency latency = new SimulatedLatency(
+            options.getLong(prefix + "latency", 250),
+            options.getLong(prefix + "jitter", 150),
+            options.getDouble(prefix + "tail-rate", 0.02),
+            options.getLong(prefix + "tail", 8000));
+        return new PortalSimulator(latency,
+            options.getDouble(prefix + "error-rate", 0.01),
+            options.getDouble(prefix + "not-found-rate", 0.05),
+            options.getInt(prefix + "page-size", 50),
+            Set.of(options.get(prefix + "subjects-methods", "POST,GET").toUpperCase().split(",")));
+    }
+
+    public void start(int port, int threads) throws IOException {
+        // Simulated latency sleeps, so every in-flight request needs its own thread
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.printf("Portal simulator listening on http://localhost:%d (latency %s, errors %.1f%%, not found %.1f%%)%n",
+            port, latency, errorRate * 100, notFoundRate * 100);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        System.out.printf("Portal simulator served %d requests, %d injected failures%n", requests.get(), failures.get());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            latency.pause();
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/api/") && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failures.incrementAndGet();
+                send(exchange, 500, "application/json", "{\"Message\":\"An error has occurred.\"}");
+                return;
+            }
+
+            Map<String, String> params = params(exchange);
+
+            if (path.equals("/Procesos/NumeroRadicacion")) {
+                exchange.getResponseHeaders().add("Set-Cookie", "ASP.NET_SessionId=" + UUID.randomUUID() + "; path=/; HttpOnly");
+                send(exchange, 200, "text/html; charset=utf-8", "<html><body>Consulta de Procesos</body></html>");
+            } else if (path.endsWith("/v2/Procesos/Consulta/NumeroRadicacion")) {
+                sendJson(exchange, basicInfo(params.get("numero")));
+            } else if (path.endsWith("/v2/Proceso/Actuaciones")) {
+                sendJson(exchange, activities(params.get("numero"), parseInt(params.get("pagina"), 1)));
+            } else if (path.endsWith("/Process/GetSujetosProcesales") && !subjectsMethods.contains(exchange.getRequestMethod())) {
+                send(exchange, 405, "application/json", "{\"Message\":\"The requested resource does not support http method '"
+                    + exchange.getRequestMethod() + "'.\"}");
+            } else if (path.endsWith("/Process/GetSujetosProcesales")) {
+                sendJson(exchange, subjects(firstNonNull(params.get("lsNroRadicacion"), params.get("numero"))));
+            } else if (path.endsWith("/Process/GetDocumentos")) {
+                sendJson(exchange, documents(params.get("lsNroRadicacion"), parseLong(params.get("lnIdActuacion"), 0)));
+            } else {
+                send(exchange, 404, "text/plain", "Not found");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, "text/plain", "Interrupted");
+        } catch (RuntimeException e) {
+            send(exchange, 500, "text/plain", String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private JsonNode basicInfo(String numero) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("tipoConsulta", "NumeroRadicacion");
+        ArrayNode procesos = response.putArray("procesos");
+
+        if (exists(numero)) {
+            Random random = randomFor(numero);
+            ObjectNode proceso = procesos.addObject();
+            proceso.put("idProceso", 100_000_000L + Math.abs(numero.hashCode() % 50_000_000));
+            proceso.put("idConexion", 263);
+            proceso.put("llaveProceso", numero);
+            proceso.put("fechaProceso", date(random, 2015, 2020));
+            proceso.put("fechaUltimaActuacion", date(random, 2023, 2024));
+            proceso.put("despacho", DESPACHOS[random.nextInt(DESPACHOS.length)]);
+            proceso.put("departamento", "ANTIOQUIA");
+            proceso.put("sujetosProcesales", "Demandante: " + NOMBRES[random.nextInt(NOMBRES.length)]
+                + " | Demandado: " + NOMBRES[random.nextInt(NOMBRES.length)]);
+            proceso.put("esPrivado", false);
+            proceso.put("cantFilas", -1);
+        }
+
+        ObjectNode paginacion = response.putObject("paginacion");
+        paginacion.put("cantidadRegistros", procesos.size());
+        paginacion.put("registrosPagina", 20);
+        paginacion.put("cantidadPaginas", 1);
+        paginacion.put("pagina", 1);
+        return response;
+    }
+
+    private JsonNode activities(String numero, int pagina) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ArrayNode actuaciones = response.putArray("actuaciones");
+
+        int total = exists(numero) ? activityCount(numero) : 0;
+        int pages = Math.max(1, (total + pageSize - 1) / pageSize);
+        int from = (pagina - 1) * pageSize;
+        int to = Math.min(total, from + pageSize);
+
+        for (int index = from; index < to; index++) {
+            Random random = randomFor(numero + "#" + index);
+            // Like the portal, actuaciones are listed newest first
+            String fecha = LocalDate.of(2024, 12, 31).minusDays(index * 3L + random.nextInt(3)) + "T00:00:00";
+            ObjectNode actuacion = actuaciones.addObject();
+            actuacion.put("idRegActuacion", activityId(numero, index));
+            actuacion.put("idActuacion", activityId(numero, index));
+            actuacion.put("llaveProceso", numero);
+            actuacion.put("consActuacion", total - index);
+            actuacion.put("fechaActuacion", fecha);
+            actuacion.put("actuacion", ACTUACIONES[random.nextInt(ACTUACIONES.length)]);
+            actuacion.put("anotacion", ANOTACIONES[random.nextInt(ANOTACIONES.length)]);
+            actuacion.put("fechaInicioTermino", index % 4 == 0 ? fecha : null);
+            actuacion.put("fechaFinalizaTermino", index % 4 == 0 ? fecha : null);
+            actuacion.put("fechaRegistro", fecha);
+            actuacion.put("codigoRegla", "00                              ");
+            actuacion.put("conDocumentos", index % 10 == 0);
+            actuacion.put("cantFolios", random.nextInt(30));
+        }
+
+        ObjectNode paginacion = response.putObject("paginacion");
+        paginacion.put("cantidadRegistros", total);
+        paginacion.put("registrosPagina", pageSize);
+        paginacion.put("cantidadPaginas", pages);
+        paginacion.put("pagina", pagina);
+        return response;
+    }
+
+    private JsonNode subjects(String numero) {
+        ObjectNode response = objectMapper.createObjectNode();
+        boolean exists = numero != null && exists(numero);
+        response.put("isSuccess", exists);
+        ArrayNode lsData = response.putArray("lsData");
+
+        if (exists) {
+            Random random = randomFor(numero + "#subjects");
+            int count = 2 + random.nextInt(4);
+            for (int index = 0; index < count; index++) {
+                ObjectNode subject = lsData.addObject();
+                boolean hasLawyer = random.nextBoolean();
+                subject.put("lnIdSujetoProceso", 90_000_000L + Math.abs((numero + index).hashCode() % 1_000_000));
+                subject.put("lsNombreSujeto", NOMBRES[random.nextInt(NOMBRES.length)]);
+                subject.put("lsTipoSujeto", index == 0 ? "Demandante" : "Demandado");
+                subject.put("lsIdentificacion", String.valueOf(10_000_000 + random.nextInt(89_999_999)));
+                subject.put("lsTipoIdentificacion", "CC");
+                subject.put("lsApoderado", hasLawyer ? NOMBRES[random.nextInt(NOMBRES.length)] : null);
+                subject.put("lbTieneApoderado", hasLawyer ? "S" : "N");
+            }
+        }
+        return response;
+    }
+
+    private JsonNode documents(String numero, long idActuacion) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("isSuccess", numero != null && exists(numero));
+        ArrayNode lsData = response.putArray("lsData");
+
+        if (numero != null && exists(numero)) {
+            Random random = randomFor(numero + "#" + idActuacion);
+            int count = 1 + random.nextInt(3);
+            for (int index = 0; index < count; index++) {
+                long id = idActuacion * 10 + index;
+                ObjectNode document = lsData.addObject();
+                document.put("lnIdDocumento", id);
+                document.put("lsNombreArchivo", numero + "_" + id + ".pdf");
+                document.put("lsTipoDocumento", "Auto");
+                document.put("lsUrlDescarga", "http://localhost/api/v2/Descarga/Documento/" + id);
+                document.put("lnTamanoArchivo", 40_000 + random.nextInt(2_000_000));
+                document.put("lsExtensionArchivo", "pdf");
+                document.put("ldFechaDocumento", date(random, 2019, 2024));
+            }
+        }
+        return response;
+    }
+
+    private boolean exists(String numero) {
+        if (numero == null || numero.isBlank()) {
+            return false;
+        }
+        // Stable per radicación, so a missing process stays missing across requests
+        return Math.floorMod(numero.trim().hashCode(), 10_000) >= notFoundRate * 10_000;
+    }
+
+    private int activityCount(String numero) {
+        return 10 + randomFor(numero + "#count").nextInt(190);
+    }
+
+    private long activityId(String numero, int index) {
+        return 1_500_000_000L + Math.floorMod(numero.hashCode(), 1_000_000) * 1_000L + index;
+    }
+
+    private Random randomFor(String seed) {
+        return new Random(seed.hashCode());
+    }
+
+    private String date(Random random, int fromYear, int toYear) {
+        LocalDate date = LocalDate.of(fromYear + random.nextInt(toYear - fromYear + 1), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        return date + "T00:00:00";
+    }
+
+    /**
+     * Query string plus form or JSON body parameters, which is how the subjects
+     * and documents endpoints accept their arguments.
+     */
+    private Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+
+        if ("POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String contentType = String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type"));
+            if (contentType.contains("json") && !body.isBlank()) {
+                objectMapper.readTree(body).fields().forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            } else {
+                parseForm(body, params);
+            }
+        }
+        return params;
+    }
+
+    private void parseForm(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isBlank()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, JsonNode body) throws IOException {
+        send(exchange, 200, "application/json; charset=utf-8", objectMapper.writeValueAsString(body));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        try {
+            return value != null ? Long.parseLong(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
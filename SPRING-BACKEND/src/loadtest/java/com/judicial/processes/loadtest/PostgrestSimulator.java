@@ -0,0 +1,466 @@
+package com.judicial.processes.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-memory stand-in for the Supabase REST (PostgREST) and Auth APIs, covering
+ * the subset the backend uses: {@code eq, neq, lt, lte, gt, gte, in, is, like,
+ * ilike} filters, {@code select, order, limit, offset}, upserts through
+ * {@code on_conflict} and the {@code return=} / {@code count=exact} preferences.
+ * Like PostgREST, no response carries more than {@code --max-rows} rows.
+ * Auth tokens are accepted without verification.
+ *
+ * <pre>
+ * mvn -Ploadtest compile exec:java -Dloadtest.main=com.judicial.processes.loadtest.PostgrestSimulator \
+ *     -Dexec.args="--port=9091 --latency=5 --jitter=10"
+ * </pre>
+ */
+public class PostgrestSimulator {
+
+    private static final String REST_PREFIX = "/rest/v1/";
+    private static final String AUTH_PREFIX = "/auth/v1";
+
+    private static final Set<String> RESERVED_PARAMS = Set.of("select", "order", "limit", "offset", "on_conflict", "columns");
+
+    /** Tables whose id is a BIGSERIAL rather than a UUID */
+    private static final Set<String> SERIAL_ID_TABLES = Set.of("favorite_processes");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSxxx");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimulatedLatency latency;
+    private final int maxRows;
+    private final Map<String, List<ObjectNode>> tables = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final Map<String, AtomicLong> serialIds = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+
+    public PostgrestSimulator(SimulatedLatency latency, int maxRows) {
+        this.latency = latency;
+        this.maxRows = maxRows;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options(args);
+        PostgrestSimulator simulator = fromOptions(options, "");
+        simulator.start(options.getInt("port", 9091), options.getInt("threads", 100));
+    }
+
+    static PostgrestSimulator fromOptions(Options options, String prefix) {
+        return new PostgrestSimulator(new SimulatedLatency(
+            options.getLong(prefix + "latency", 5),
+            options.getLong(prefix + "jitter", 10),
+            options.getDouble(prefix + "tail-rate", 0),
+            options.getLong(prefix + "tail", 0)),
+            options.getInt(prefix + "max-rows", 1000));
+    }
+
+    public void start(int port, int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.printf("PostgREST simulator listening on http://localhost:%d (latency %s)%n", port, latency);
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        StringBuilder summary = new StringBuilder();
+        tables.forEach((name, rows) -> summary.append(' ').append(name).append('=').append(rows.size()));
+        System.out.printf("PostgREST simulator served %d requests, rows:%s%n", requests.get(), summary);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            latency.pause();
+
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith(REST_PREFIX)) {
+                handleRest(exchange, path.substring(REST_PREFIX.length()));
+            } else if (path.startsWith(AUTH_PREFIX)) {
+                handleAuth(exchange, path.substring(AUTH_PREFIX.length()));
+            } else {
+                sendError(exchange, 404, "Unknown path " + path);
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendError(exchange, 503, "Interrupted");
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleRest(HttpExchange exchange, String table) throws IOException {
+        Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+        String prefer = String.valueOf(exchange.getRequestHeaders().getFirst("Prefer"));
+        boolean minimal = prefer.contains("return=minimal");
+        List<ObjectNode> rows = tables.computeIfAbsent(table, key -> new ArrayList<>());
+        Predicate<ObjectNode> filter = filter(params);
+
+        switch (exchange.getRequestMethod()) {
+            case "GET", "HEAD" -> {
+                List<ObjectNode> matched;
+                synchronized (rows) {
+                    matched = rows.stream().filter(filter).map(ObjectNode::deepCopy).toList();
+                }
+                List<ObjectNode> page = page(sort(matched, params.get("order")), params);
+                if (prefer.contains("count=exact")) {
+                    String range = page.isEmpty() ? "*" : "0-" + (page.size() - 1);
+                    exchange.getResponseHeaders().set("Content-Range", range + "/" + matched.size());
+                }
+                sendJson(exchange, 200, toArray(page));
+            }
+            case "POST" -> {
+                JsonNode body = readBody(exchange);
+                String conflictColumn = params.get("on_conflict");
+                boolean merge = prefer.contains("resolution=merge-duplicates");
+                List<ObjectNode> written = new ArrayList<>();
+                synchronized (rows) {
+                    for (JsonNode item : body.isArray() ? body : List.of(body)) {
+                        written.add(insertOrMerge(table, rows, (ObjectNode) item.deepCopy(), merge ? conflictColumn : null));
+                    }
+                }
+                respondWritten(exchange, 201, written, minimal);
+            }
+            case "PATCH" -> {
+                JsonNode changes = readBody(exchange);
+                List<ObjectNode> written = new ArrayList<>();
+                synchronized (rows) {
+                    for (ObjectNode row : rows) {
+                        if (filter.test(row)) {
+                            row.setAll((ObjectNode) changes);
+                            written.add(row.deepCopy());
+                        }
+                    }
+                }
+                respondWritten(exchange, 200, written, minimal);
+            }
+            case "DELETE" -> {
+                List<ObjectNode> removed = new ArrayList<>();
+                synchronized (rows) {
+                    Iterator<ObjectNode> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        ObjectNode row = iterator.next();
+                        if (filter.test(row)) {
+                            removed.add(row);
+                            iterator.remove();
+                        }
+                    }
+                }
+                respondWritten(exchange, 200, removed, minimal);
+            }
+            default -> sendError(exchange, 405, "Method not allowed");
+        }
+    }
+
+    private ObjectNode insertOrMerge(String table, List<ObjectNode> rows, ObjectNode row, String conflictColumn) {
+        if (conflictColumn != null && row.has(conflictColumn)) {
+            JsonNode key = row.get(conflictColumn);
+            for (ObjectNode existing : rows) {
+                if (key.equals(existing.get(conflictColumn))) {
+                    existing.setAll(row);
+                    return existing.deepCopy();
+                }
+            }
+        }
+
+        // Postgres renders timestamptz with microseconds and an explicit offset
+        String now = TIMESTAMP_FORMAT.format(OffsetDateTime.now(ZoneOffset.UTC));
+        if (!row.hasNonNull("id")) {
+            if (SERIAL_ID_TABLES.contains(table)) {
+                row.put("id", serialIds.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet());
+            } else {
+                row.put("id", UUID.randomUUID().toString());
+            }
+        }
+        if (!row.hasNonNull("created_at")) {
+            row.put("created_at", now);
+        }
+        rows.add(row);
+        return row.deepCopy();
+    }
+
+    private void respondWritten(HttpExchange exchange, int status, List<ObjectNode> rows, boolean minimal) throws IOException {
+        if (minimal) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendJson(exchange, status, toArray(rows));
+        }
+    }
+
+    private void handleAuth(HttpExchange exchange, String path) throws IOException {
+        if (path.equals("/user")) {
+            String userId = subjectOf(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (userId == null) {
+                sendError(exchange, 401, "Invalid token");
+                return;
+            }
+            sendJson(exchange, 200, user(userId));
+        } else if (path.equals("/admin/users")) {
+            ObjectNode response = objectMapper.createObjectNode();
+            response.putArray("users");
+            sendJson(exchange, 200, response);
+        } else if (path.startsWith("/admin/users/")) {
+            sendJson(exchange, 200, user(path.substring("/admin/users/".length())));
+        } else if (path.equals("/logout")) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendError(exchange, 404, "Auth endpoint not simulated: " + path);
+        }
+    }
+
+    private ObjectNode user(String userId) {
+        ObjectNode user = objectMapper.createObjectNode();
+        user.put("id", userId);
+        user.put("email", "loadtest+" + userId + "@example.com");
+        user.put("aud", "authenticated");
+        return user;
+    }
+
+    /**
+     * The {@code sub} claim of a bearer token, read without checking the signature.
+     */
+    private String subjectOf(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        String[] parts = authorization.substring(7).split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            return claims.path("sub").asText(null);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Predicate<ObjectNode> filter(Map<String, String> params) {
+        Predicate<ObjectNode> filter = row -> true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!RESERVED_PARAMS.contains(param.getKey())) {
+                filter = filter.and(condition(param.getKey(), param.getValue()));
+            }
+        }
+        return filter;
+    }
+
+    private Predicate<ObjectNode> condition(String column, String expression) {
+        if (column.equals("or") || column.equals("and")) {
+            throw new IllegalArgumentException("Logical filters are not simulated: " + column + "=" + expression);
+        }
+
+        int separator = expression.indexOf('.');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed filter " + column + "=" + expression);
+        }
+
+        boolean negated = expression.startsWith("not.");
+        String operatorAndValue = negated ? expression.substring(4) : expression;
+        separator = operatorAndValue.indexOf('.');
+        String operator = operatorAndValue.substring(0, separator);
+        String value = operatorAndValue.substring(separator + 1);
+
+        Predicate<ObjectNode> condition = switch (operator) {
+            case "eq" -> row -> compare(row.get(column), value) == 0;
+            case "neq" -> row -> compare(row.get(column), value) != 0;
+            case "lt" -> row -> compare(row.get(column), value) < 0;
+            case "lte" -> row -> compare(row.get(column), value) <= 0;
+            case "gt" -> row -> compare(row.get(column), value) > 0;
+            case "gte" -> row -> compare(row.get(column), value) >= 0;
+            case "in" -> {
+                List<String> candidates = inList(value);
+                yield row -> candidates.stream().anyMatch(candidate -> compare(row.get(column), candidate) == 0);
+            }
+            case "is" -> row -> {
+                JsonNode node = row.get(column);
+                return switch (value) {
+                    case "null" -> node == null || node.isNull();
+                    case "true" -> node != null && node.asBoolean(false);
+                    case "false" -> node != null && !node.isNull() && !node.asBoolean(true);
+                    default -> throw new IllegalArgumentException("Unsupported is." + value);
+                };
+            };
+            case "like", "ilike" -> {
+                boolean ignoreCase = operator.equals("ilike");
+                String regex = "\\Q" + value.replace("*", "\\E.*\\Q").replace("%", "\\E.*\\Q") + "\\E";
+                Pattern pattern = Pattern.compile(regex,
+                    ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+                yield row -> {
+                    JsonNode node = row.get(column);
+                    return node != null && !node.isNull() && pattern.matcher(node.asText()).matches();
+                };
+            }
+            default -> throw new IllegalArgumentException("Unsupported operator " + operator);
+        };
+        return negated ? condition.negate() : condition;
+    }
+
+    private List<String> inList(String value) {
+        if (!value.startsWith("(") || !value.endsWith(")")) {
+            throw new IllegalArgumentException("Malformed in filter " + value);
+        }
+        List<String> candidates = new ArrayList<>();
+        for (String candidate : value.substring(1, value.length() - 1).split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+                trimmed = trimmed.substring(1, trimmed.length() - 1);
+            }
+            candidates.add(trimmed);
+        }
+        return candidates;
+    }
+
+    /**
+     * Compare a stored value with a filter literal, numerically when both are
+     * numbers and as text otherwise (ISO timestamps sort correctly as text).
+     */
+    private int compare(JsonNode node, String literal) {
+        if (node == null || node.isNull()) {
+            return literal.equals("null") ? 0 : -1;
+        }
+        if (node.isNumber()) {
+            try {
+                return node.decimalValue().compareTo(new BigDecimal(literal));
+            } catch (NumberFormatException e) {
+                return node.asText().compareTo(literal);
+            }
+        }
+        if (node.isBoolean()) {
+            return Boolean.compare(node.asBoolean(), Boolean.parseBoolean(literal));
+        }
+        return node.asText().compareTo(literal);
+    }
+
+    private List<ObjectNode> sort(List<ObjectNode> rows, String order) {
+        if (order == null || order.isBlank()) {
+            return rows;
+        }
+
+        Comparator<ObjectNode> comparator = null;
+        for (String term : order.split(",")) {
+            String[] parts = term.split("\\.");
+            String column = parts[0];
+            boolean descending = parts.length > 1 && parts[1].equals("desc");
+            Comparator<ObjectNode> byColumn = (left, right) -> compareColumn(left.get(column), right.get(column));
+            if (descending) {
+                byColumn = byColumn.reversed();
+            }
+            comparator = comparator == null ? byColumn : comparator.thenComparing(byColumn);
+        }
+
+        List<ObjectNode> sorted = new ArrayList<>(rows);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    private int compareColumn(JsonNode left, JsonNode right) {
+        if (left != null && right != null && left.isNumber() && right.isNumber()) {
+            return Double.compare(left.asDouble(), right.asDouble());
+        }
+        return (left == null || left.isNull() ? "" : left.asText()).compareTo(right == null || right.isNull() ? "" : right.asText());
+    }
+
+    private List<ObjectNode> page(List<ObjectNode> rows, Map<String, String> params) {
+        int offset = params.containsKey("offset") ? Integer.parseInt(params.get("offset")) : 0;
+        int limit = Math.min(maxRows, params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE);
+        if (offset >= rows.size()) {
+            return List.of();
+        }
+        return rows.subList(offset, (int) Math.min(rows.size(), (long) offset + limit));
+    }
+
+    private ArrayNode toArray(List<ObjectNode> rows) {
+        ArrayNode array = objectMapper.createArrayNode();
+        rows.forEach(array::add);
+        return array;
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        JsonNode json = objectMapper.readTree(body);
+        if (json == null || !(json.isObject() || json.isArray())) {
+            throw new IllegalArgumentException("Expected a JSON object or array body");
+        }
+        return json;
+    }
+
+    /**
+     * Query parameters decoded without turning '+' into a space, as PostgREST
+     * clients send timestamp offsets unescaped.
+     */
+    private Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isBlank()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(decode(pair.substring(0, separator)), decode(pair.substring(separator + 1)));
+            }
+        }
+        return params;
+    }
+
+    private String decode(String value) {
+        return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("message", message);
+        sendJson(exchange, status, error);
+    }
+}
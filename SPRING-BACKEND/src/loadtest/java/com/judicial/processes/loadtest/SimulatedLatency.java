@@ -0,0 +1,38 @@
+package com.judicial.processes.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response delay of a simulated backend: a jittered base latency, plus a long
+ * stall for a configurable share of the requests to mimic a heavy tail.
+ */
+final class SimulatedLatency {
+
+    private final long baseMillis;
+    private final long jitterMillis;
+    private final double tailRate;
+    private final long tailMillis;
+
+    SimulatedLatency(long baseMillis, long jitterMillis, double tailRate, long tailMillis) {
+        this.baseMillis = baseMillis;
+        this.jitterMillis = jitterMillis;
+        this.tailRate = tailRate;
+        this.tailMillis = tailMillis;
+    }
+
+    void pause() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = baseMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        if (tailRate > 0 && random.nextDouble() < tailRate) {
+            delay += tailMillis;
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return baseMillis + "+" + jitterMillis + "ms (tail " + (tailRate * 100) + "% +" + tailMillis + "ms)";
+    }
+}
@@ -3,7 +3,10 @@ package com.judicial.processes.config;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -16,6 +19,14 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 @Configuration
 public class AppConfig {
     
+    // HttpClient's own defaults (25 connections, 5 per host) would queue requests long
+    // before the request threads run out, especially on virtual threads
+    @Value("${http-client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
     @Bean
     public RestTemplate restTemplate() {
     RequestConfig requestConfig = RequestConfig.custom()
@@ -24,7 +35,13 @@ public class AppConfig {
         .setResponseTimeout(Timeout.ofSeconds(30))
         .build();
 
+    PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(maxConnections)
+        .setMaxConnPerRoute(maxConnectionsPerRoute)
+        .build();
+
     CloseableHttpClient httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
         .setDefaultRequestConfig(requestConfig)
         .build();
 
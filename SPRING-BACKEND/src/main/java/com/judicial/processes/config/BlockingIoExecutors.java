@@ -0,0 +1,105 @@
+package com.judicial.processes.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Creates the executors used to fan out blocking portal and Supabase calls. With
+ * {@code spring.threads.virtual.enabled} on a Java 21 runtime, their workers are
+ * virtual threads, the same switch Spring Boot uses to move Tomcat request
+ * handling and {@code @Scheduled} tasks onto virtual threads. Otherwise they are
+ * daemon platform threads, as before.
+ *
+ * The code still compiles for Java 17, so the virtual thread API is looked up
+ * reflectively.
+ */
+@Component
+public class BlockingIoExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingIoExecutors.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void init() {
+        if (!virtualThreadsRequested) {
+            logger.info("Blocking I/O runs on platform threads");
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                Runtime.version().feature());
+            return;
+        }
+        virtualThreads = true;
+        logger.info("Blocking I/O runs on virtual threads; start with -Djdk.tracePinnedThreads=short to report pinning");
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * A pool of {@code threads} workers named {@code name-N}. On virtual threads the
+     * workers are cheap, so the size only limits how hard the downstream service
+     * is hit and can be raised well beyond what platform threads would allow.
+     */
+    public ExecutorService newFixedExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, threadFactory(name));
+    }
+
+    /**
+     * An executor running at most {@code threads} tasks at once and queueing none:
+     * a task submitted while every worker is busy is rejected with a
+     * RejectedExecutionException, so callers can fall back instead of waiting.
+     * Idle workers are released after a minute.
+     */
+    public ExecutorService newBoundedExecutor(String name, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), threadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ThreadFactory threadFactory(String name) {
+        if (virtualThreads) {
+            return virtualThreadFactory(name);
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            // Thread.ofVirtual().name(name + "-", 1).factory()
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method named = builderType.getMethod("name", String.class, long.class);
+            builder = named.invoke(builder, name + "-", 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on this runtime", e);
+        }
+    }
+}
@@ -17,6 +17,9 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.judicial.processes.security.JwtAuthenticationFilter;
+import com.judicial.processes.security.RateLimitFilter;
+
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -25,6 +28,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -36,6 +42,9 @@ public class SecurityConfig {
             
             // Configurar autorizaciones
             .authorizeHttpRequests(auth -> auth
+                // Los despachos asíncronos (SSE) ya fueron autorizados en la solicitud original
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Endpoints públicos (sin autenticación)
                 .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh-token").permitAll()
                 .requestMatchers("/api/auth/forgot-password", "/api/auth/reset-password").permitAll()
@@ -51,6 +60,7 @@ public class SecurityConfig {
                 
                 // Endpoints protegidos (requieren autenticación)
                 .requestMatchers("/api/auth/profile", "/api/auth/logout", "/api/auth/change-password").authenticated()
+                .requestMatchers("/api/judicial/consult/batch").authenticated()
                 .requestMatchers("/api/judicial/monitored").authenticated()
                 .requestMatchers("/api/judicial/monitor").authenticated()
                 .requestMatchers("/api/judicial/monitor/*").authenticated()
@@ -71,7 +81,10 @@ public class SecurityConfig {
             .httpBasic(basic -> basic.disable())
             
             // Agregar el filtro JWT antes del filtro de autenticación por usuario/contraseña
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
+            // Limitar solicitudes una vez identificado el usuario
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -108,7 +121,8 @@ public class SecurityConfig {
         
         // Exponer headers de respuesta
         configuration.setExposedHeaders(Arrays.asList(
-            "Authorization", "Content-Type", "X-Total-Count"
+            "Authorization", "Content-Type", "X-Total-Count", "Retry-After", "X-RateLimit-Remaining",
+            "ETag", "Last-Modified"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -11,6 +11,8 @@ public class SupabaseProperties {
     private String anonKey;
     private String authUrl;
     private String restUrl;
+    /** Rows PostgREST returns at most per request (its max-rows setting) */
+    private int maxRows = 1000;
 
     // Getters and setters
     public String getUrl() {
@@ -59,4 +61,12 @@ public class SupabaseProperties {
     public void setRestUrl(String restUrl) {
         this.restUrl = restUrl;
     }
-}
\ No newline at end of file
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+}
@@ -1,5 +1,8 @@
 package com.judicial.processes.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -8,6 +11,10 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -19,17 +26,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.judicial.processes.dto.BatchConsultRequest;
 import com.judicial.processes.dto.ProcessActivity;
 import com.judicial.processes.dto.ProcessConsultRequest;
 import com.judicial.processes.dto.ProcessData;
 import com.judicial.processes.dto.ProcessMonitorRequest;
 import com.judicial.processes.dto.ProcessSubject;
+import com.judicial.processes.service.BatchConsultService;
 import com.judicial.processes.service.JudicialScrapingService;
+import com.judicial.processes.service.JudicialScrapingService.ProcessVersion;
 import com.judicial.processes.service.JudicialService;
+import com.judicial.processes.service.MissingProcessCache;
+import com.judicial.processes.service.ProcessPayloadCache;
+import com.judicial.processes.service.ProcessPayloadCache.Payload;
 import com.judicial.processes.service.SupabaseService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -42,6 +56,8 @@ public class JudicialController {
     
     private static final Logger logger = LoggerFactory.getLogger(JudicialController.class);
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     @Autowired
     private JudicialScrapingService scrapingService;
     
@@ -51,6 +67,15 @@ public class JudicialController {
     @Autowired
     private JudicialService judicialService;
     
+    @Autowired
+    private BatchConsultService batchConsultService;
+    
+    @Autowired
+    private ProcessPayloadCache payloadCache;
+    
+    @Autowired
+    private MissingProcessCache missingProcessCache;
+    
     @Autowired
     private ObjectMapper objectMapper;
     // PUBLIC ROUTES - No authentication required
@@ -87,16 +112,39 @@ public class JudicialController {
             boolean shouldForceRefresh = forceRefresh || fresh;
             
             // First check if process exists in database (unless forcing refresh)
-            String processId = shouldForceRefresh ? null : scrapingService.processExists(numeroRadicacion);
+            ProcessVersion storedVersion = shouldForceRefresh ? null : scrapingService.findProcessVersion(numeroRadicacion);
+            String processId = storedVersion != null ? storedVersion.processId() : null;
             ProcessData processData;
             String source;
             
             if (processId != null && !shouldForceRefresh) {
+                // Conditional requests are left to the GET endpoints: a POST is not
+                // cacheable, so its responses carry no validators and never answer 304
+                
+                // Hot processes are served from the bytes serialized for an earlier request
+                Payload cached = payloadCache.getIfPresent("consult", storedVersion);
+                if (cached != null) {
+                    judicialService.logConsultation(userId, processId, "user_consult", 
+                        httpRequest.getRemoteAddr(), httpRequest.getHeader("User-Agent"), "success", null);
+                    return payloadResponse(httpRequest, null, cached);
+                }
+                
                 // Get from database
                 logger.info("Process found in database, retrieving...");
                 processData = judicialService.getProcessFromDatabase(processId);
+                if (processData == null) {
+                    // Never cache a process whose related rows failed to load
+                    throw new RuntimeException("Could not load stored process " + processId);
+                }
                 source = "database";
             } else {
+                // Not stored and the portal just reported it as non-existent, don't ask again yet
+                if (!shouldForceRefresh && missingProcessCache.isMissing(numeroRadicacion)) {
+                    judicialService.logConsultation(userId, null, "user_consult", 
+                        httpRequest.getRemoteAddr(), httpRequest.getHeader("User-Agent"), "not_found", "Proceso no encontrado");
+                    return processNotFound();
+                }
+                
                 // Scrape from portal
                 logger.info("Process not in database, scraping from portal...");
                 Boolean soloActivos = request.getSoloActivos() != null ? request.getSoloActivos() : false;
@@ -106,26 +154,29 @@ public class JudicialController {
                     judicialService.logConsultation(userId, null, "user_consult", 
                         httpRequest.getRemoteAddr(), httpRequest.getHeader("User-Agent"), "not_found", "Proceso no encontrado");
                     
-                    return ResponseEntity.status(404).body(Map.of(
-                        "error", "Proceso no encontrado",
-                        "message", "No se encontró información del proceso en el portal oficial"
-                    ));
+                    return processNotFound();
                 }
                 
                 // Save to database (this will update if exists due to upsert)
                 processId = scrapingService.saveProcessData(processData);
                 source = "portal";
+                storedVersion = null;
             }
             
             // Log the consultation with user_id if authenticated
             judicialService.logConsultation(userId, processId, "user_consult", 
                 httpRequest.getRemoteAddr(), httpRequest.getHeader("User-Agent"), "success", null);
             
-            return ResponseEntity.ok(Map.of(
+            Map<String, Object> body = Map.of(
                 "success", true,
                 "data", processData,
                 "source", source
-            ));
+            );
+            
+            if (storedVersion != null) {
+                return payloadResponse(httpRequest, null, payloadCache.store("consult", storedVersion, body));
+            }
+            return ResponseEntity.ok(body);
             
         } catch (Exception error) {
             logger.error("Process consultation error:", error);
@@ -143,6 +194,44 @@ public class JudicialController {
         }
     }
     
+    /**
+     * POST /api/judicial/consult/batch - Consult many processes at once, streamed as NDJSON
+     */
+    @PostMapping("/consult/batch")
+    public ResponseEntity<StreamingResponseBody> consultBatch(@Valid @RequestBody BatchConsultRequest request,
+                                                              Authentication authentication,
+                                                              HttpServletRequest httpRequest) {
+        // The body type must stay StreamingResponseBody for Spring MVC to stream it,
+        // so the error is written through one as well
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, Map.of("error", "No autorizado")));
+        }
+
+        String userId = (String) authentication.getPrincipal();
+        String ip = httpRequest.getRemoteAddr();
+        String userAgent = httpRequest.getHeader("User-Agent");
+
+        logger.info("Batch consultation of {} processes by user: {}", request.getNumerosRadicacion().size(), userId);
+
+        // Each result is written and flushed as soon as it is ready, one JSON object per line
+        StreamingResponseBody body = outputStream -> batchConsultService.consult(
+            request.getNumerosRadicacion(), request.getSoloActivos(), userId, ip, userAgent, item -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+        return ResponseEntity.ok()
+            .contentType(NDJSON)
+            .body(body);
+    }
+    
     /**
      * POST /api/judicial/save-process - Save process data to database (public endpoint)
      */
@@ -363,11 +452,27 @@ public class JudicialController {
      * GET /api/judicial/{numeroRadicacion}/activities - Get process activities
      */
     @GetMapping("/{numeroRadicacion}/activities")
-    public ResponseEntity<?> getProcessActivities(@PathVariable String numeroRadicacion) {
+    public ResponseEntity<?> getProcessActivities(@PathVariable String numeroRadicacion,
+                                                  HttpServletRequest httpRequest) {
         try {
             // Find process
-            String processId = scrapingService.processExists(numeroRadicacion);
+            ProcessVersion version = scrapingService.findProcessVersion(numeroRadicacion);
+            if (version != null && isNotModified(httpRequest, version)) {
+                return notModified(version);
+            }
+            
+            Payload cached = payloadCache.getIfPresent("activities", version);
+            if (cached != null) {
+                return payloadResponse(httpRequest, version, cached);
+            }
+            
+            String processId = version != null ? version.processId() : null;
             if (processId == null) {
+                if (missingProcessCache.isMissing(numeroRadicacion)) {
+                    // Not stored and the portal just reported it as non-existent, don't ask again yet
+                    return ResponseEntity.status(404).body(Map.of("error", "Proceso no encontrado"));
+                }
+                
                 // Try scraping live if not in DB
                 logger.info("No DB record for {} - attempting live scrape for activities", numeroRadicacion);
                 ProcessData scraped = scrapingService.scrapeProcessData(numeroRadicacion);
@@ -376,6 +481,11 @@ public class JudicialController {
                 }
             }
 
+            if (processId == null && missingProcessCache.isMissing(numeroRadicacion)) {
+                // The scrape found no such process, the raw fallbacks would not either
+                return ResponseEntity.status(404).body(Map.of("error", "Proceso no encontrado"));
+            }
+
             if (processId == null) {
                 // last-resort: try fetching raw portal JSON and return it
                 JsonNode raw = scrapingService.fetchActivitiesRaw(numeroRadicacion);
@@ -395,6 +505,7 @@ public class JudicialController {
                 ProcessData scraped = scrapingService.scrapeProcessData(numeroRadicacion, false);
                 if (scraped != null) {
                     scrapingService.saveProcessData(scraped);
+                    version = null;
                     activities = judicialService.getProcessActivities(processId != null ? processId : scrapingService.processExists(numeroRadicacion));
                 }
             }
@@ -408,6 +519,11 @@ public class JudicialController {
                 }
             }
 
+            if (version != null && activities != null && !activities.isEmpty()) {
+                return payloadResponse(httpRequest, version,
+                    payloadCache.store("activities", version, Map.of("success", true, "data", activities)));
+            }
+
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "data", activities != null ? activities : new ArrayList<>()
@@ -423,11 +539,27 @@ public class JudicialController {
      * GET /api/judicial/{numeroRadicacion}/subjects - Get process subjects
      */
     @GetMapping("/{numeroRadicacion}/subjects")
-    public ResponseEntity<?> getProcessSubjects(@PathVariable String numeroRadicacion) {
+    public ResponseEntity<?> getProcessSubjects(@PathVariable String numeroRadicacion,
+                                                  HttpServletRequest httpRequest) {
         try {
             // Find process
-            String processId = scrapingService.processExists(numeroRadicacion);
+            ProcessVersion version = scrapingService.findProcessVersion(numeroRadicacion);
+            if (version != null && isNotModified(httpRequest, version)) {
+                return notModified(version);
+            }
+            
+            Payload cached = payloadCache.getIfPresent("subjects", version);
+            if (cached != null) {
+                return payloadResponse(httpRequest, version, cached);
+            }
+            
+            String processId = version != null ? version.processId() : null;
             if (processId == null) {
+                if (missingProcessCache.isMissing(numeroRadicacion)) {
+                    // Not stored and the portal just reported it as non-existent, don't ask again yet
+                    return ResponseEntity.status(404).body(Map.of("error", "Proceso no encontrado"));
+                }
+                
                 // Try scraping live if not in DB
                 logger.info("No DB record for {} - attempting live scrape for subjects", numeroRadicacion);
                 ProcessData scraped = scrapingService.scrapeProcessData(numeroRadicacion);
@@ -436,6 +568,11 @@ public class JudicialController {
                 }
             }
 
+            if (processId == null && missingProcessCache.isMissing(numeroRadicacion)) {
+                // The scrape found no such process, the raw fallbacks would not either
+                return ResponseEntity.status(404).body(Map.of("error", "Proceso no encontrado"));
+            }
+
             if (processId == null) {
                 // fallback: return raw portal subjects JSON
                 JsonNode raw = scrapingService.fetchSubjectsRaw(numeroRadicacion);
@@ -455,6 +592,7 @@ public class JudicialController {
                 ProcessData scraped = scrapingService.scrapeProcessData(numeroRadicacion, false);
                 if (scraped != null) {
                     scrapingService.saveProcessData(scraped);
+                    version = null;
                     subjects = judicialService.getProcessSubjects(processId != null ? processId : scrapingService.processExists(numeroRadicacion));
                 }
             }
@@ -468,6 +606,11 @@ public class JudicialController {
                 }
             }
 
+            if (version != null && subjects != null && !subjects.isEmpty()) {
+                return payloadResponse(httpRequest, version,
+                    payloadCache.store("subjects", version, Map.of("success", true, "data", subjects)));
+            }
+
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "data", subjects != null ? subjects : new ArrayList<>()
@@ -479,6 +622,98 @@ public class JudicialController {
         }
     }
 
+    private ResponseEntity<?> processNotFound() {
+        return ResponseEntity.status(404).body(Map.of(
+            "error", "Proceso no encontrado",
+            "message", "No se encontró información del proceso en el portal oficial"
+        ));
+    }
+
+    /**
+     * Whether the client's copy of the process is still current: If-None-Match is
+     * checked first and If-Modified-Since only when no entity tag was sent
+     */
+    private boolean isNotModified(HttpServletRequest request, ProcessVersion version) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String etag = stripWeakPrefix(version.etag());
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag) || stripWeakPrefix(tag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (version.updatedAt() == null) {
+            return false;
+        }
+
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        // HTTP dates only carry whole seconds
+        return ifModifiedSince >= 0
+            && version.updatedAt().truncatedTo(ChronoUnit.SECONDS).toEpochMilli() <= ifModifiedSince;
+    }
+
+    private String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private ResponseEntity<?> notModified(ProcessVersion version) {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    /**
+     * 200 response with a serialized payload; ETag and Last-Modified are only sent
+     * when {@code version} is given
+     */
+    private ResponseEntity<?> payloadResponse(HttpServletRequest request, ProcessVersion version, Payload payload) {
+        ResponseEntity.BodyBuilder builder = withValidators(ResponseEntity.ok(), version)
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        // Already compressed bodies carry Content-Encoding, so the server does not compress them again
+        if (payload.gzip() != null && acceptsGzip(request)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return builder.body(payload.json());
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, ProcessVersion version) {
+        if (version == null) {
+            return builder;
+        }
+
+        // Clients may keep the payload but must revalidate it before every use
+        builder.eTag(version.etag()).cacheControl(CacheControl.noCache());
+        if (version.updatedAt() != null) {
+            builder.lastModified(version.updatedAt());
+        }
+        return builder;
+    }
+
     private List<Map<String, Object>> tryExtractArrayAsList(JsonNode raw) {
         if (raw == null) return null;
         JsonNode arr = null;
@@ -561,11 +796,12 @@ public class JudicialController {
                 
                 if (processData != null) {
                     Map<String, Object> processMap = judicialService.convertProcessDataToMap(processData);
-                    processMap.put("monitoring_info", Map.of(
-                        "role", userProcess.get("role"),
-                        "alias", userProcess.get("alias"),
-                        "added_at", userProcess.get("created_at")
-                    ));
+                    // alias is optional, so this cannot be an immutable Map.of
+                    Map<String, Object> monitoringInfo = new HashMap<>();
+                    monitoringInfo.put("role", userProcess.get("role"));
+                    monitoringInfo.put("alias", userProcess.get("alias"));
+                    monitoringInfo.put("added_at", userProcess.get("created_at"));
+                    processMap.put("monitoring_info", monitoringInfo);
                     processes.add(processMap);
                 }
             }
@@ -8,18 +8,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.judicial.processes.dto.NotificationReadRequest;
 import com.judicial.processes.entity.NotificationRecord;
 import com.judicial.processes.service.NotificationService;
+import com.judicial.processes.service.NotificationStreamService;
+
+import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -28,14 +35,20 @@ public class NotificationController {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> getNotifications(
             Authentication authentication,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(defaultValue = "0") int offset) {
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor) {
 
         Map<String, Object> response = new HashMap<>();
 
@@ -47,12 +60,28 @@ public class NotificationController {
             }
 
             String userId = authentication.getName();
-            List<NotificationRecord> notifications = notificationService.getNotifications(userId, limit, offset);
+
+            // Offset paging is kept for older clients; first pages and cursors use keyset paging
+            if (offset > 0 && cursor == null) {
+                List<NotificationRecord> notifications = notificationService.getNotifications(userId, limit, offset);
+                response.put("success", true);
+                response.put("data", notifications);
+                response.put("count", notifications.size());
+                return ResponseEntity.ok(response);
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<NotificationRecord> notifications = notificationService.getNotificationsPage(userId, pageSize, cursor);
 
             response.put("success", true);
             response.put("data", notifications);
             response.put("count", notifications.size());
+            response.put("nextCursor", notificationService.nextCursor(notifications, pageSize));
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", "Cursor de paginación inválido");
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             logger.error("Error fetching notifications", e);
             response.put("success", false);
@@ -90,6 +119,44 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/unread/count")
+    public ResponseEntity<Map<String, Object>> getUnreadCount(Authentication authentication) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                response.put("success", false);
+                response.put("message", "Usuario no autenticado");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+
+            long count = notificationService.getUnreadCount(authentication.getName());
+
+            response.put("success", true);
+            response.put("count", count);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error counting unread notifications", e);
+            response.put("success", false);
+            response.put("message", "Error al obtener las notificaciones");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Push new notifications to the client as server-sent events instead of polling /unread.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no")
+            .body(notificationStreamService.subscribe(authentication.getName()));
+    }
+
     @PostMapping("/{notificationId}/read")
     public ResponseEntity<Map<String, Object>> markAsRead(
         @PathVariable String notificationId,
@@ -104,9 +171,10 @@ public class NotificationController {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
-            notificationService.markAsRead(notificationId);
+            long unreadCount = notificationService.markAsRead(authentication.getName(), notificationId);
             response.put("success", true);
             response.put("message", "Notificación marcada como leída");
+            response.put("unreadCount", unreadCount);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             logger.error("Error marking notification as read", e);
@@ -116,6 +184,33 @@ public class NotificationController {
         }
     }
 
+    @PostMapping("/read")
+    public ResponseEntity<Map<String, Object>> markManyAsRead(
+            @Valid @RequestBody NotificationReadRequest request,
+            Authentication authentication) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            if (authentication == null || !authentication.isAuthenticated()) {
+                response.put("success", false);
+                response.put("message", "Usuario no autenticado");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            }
+
+            long unreadCount = notificationService.markAsRead(authentication.getName(), request.getIds());
+            response.put("success", true);
+            response.put("message", "Notificaciones marcadas como leídas");
+            response.put("unreadCount", unreadCount);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error marking {} notifications as read", request.getIds().size(), e);
+            response.put("success", false);
+            response.put("message", "Error al actualizar las notificaciones");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @PostMapping("/read-all")
     public ResponseEntity<Map<String, Object>> markAllAsRead(Authentication authentication) {
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,31 @@
+package com.judicial.processes.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BatchConsultRequest {
+
+    public static final int MAX_ITEMS = 200;
+
+    @NotEmpty(message = "Debe indicar al menos un número de radicación")
+    @Size(max = MAX_ITEMS, message = "No se pueden consultar más de 200 procesos a la vez")
+    private List<@NotBlank(message = "El número de radicación es requerido") String> numerosRadicacion;
+
+    private Boolean soloActivos;
+
+    // Constructors
+    public BatchConsultRequest() {}
+
+    public BatchConsultRequest(List<String> numerosRadicacion) {
+        this.numerosRadicacion = numerosRadicacion;
+    }
+
+    // Getters and Setters
+    public List<String> getNumerosRadicacion() { return numerosRadicacion; }
+    public void setNumerosRadicacion(List<String> numerosRadicacion) { this.numerosRadicacion = numerosRadicacion; }
+    public Boolean getSoloActivos() { return soloActivos; }
+    public void setSoloActivos(Boolean soloActivos) { this.soloActivos = soloActivos; }
+}
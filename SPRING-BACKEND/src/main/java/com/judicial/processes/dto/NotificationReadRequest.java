@@ -0,0 +1,28 @@
+package com.judicial.processes.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class NotificationReadRequest {
+
+    public static final int MAX_IDS = 100;
+
+    @NotEmpty(message = "Debe indicar al menos una notificación")
+    @Size(max = MAX_IDS, message = "No se pueden marcar más de 100 notificaciones a la vez")
+    private List<@Pattern(regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$",
+        message = "Identificador de notificación inválido") String> ids;
+
+    // Constructors
+    public NotificationReadRequest() {}
+
+    public NotificationReadRequest(List<String> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+}
@@ -0,0 +1,180 @@
+package com.judicial.processes.entity;
+
+import java.time.OffsetDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class EmailOutboxMessage {
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String id;
+
+    private String recipient;
+    private String subject;
+
+    @JsonProperty("html_body")
+    private String htmlBody;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String status;
+
+    private int attempts;
+
+    // Sent on insert for delayed rows; RestTemplate's own mapper would write a number
+    @JsonProperty("next_attempt_at")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private OffsetDateTime nextAttemptAt;
+
+    @JsonProperty("locked_at")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OffsetDateTime lockedAt;
+
+    @JsonProperty("last_error")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String lastError;
+
+    @JsonProperty("sent_at")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OffsetDateTime sentAt;
+
+    @JsonProperty("created_at")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private OffsetDateTime createdAt;
+
+    @JsonProperty("digest_key")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String digestKey;
+
+    @JsonProperty("digest_process")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String digestProcess;
+
+    @JsonProperty("digest_details")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String digestDetails;
+
+    public EmailOutboxMessage() {
+    }
+
+    public EmailOutboxMessage(String recipient, String subject, String htmlBody) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.htmlBody = htmlBody;
+        this.status = "pending";
+        this.attempts = 0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+
+    public void setHtmlBody(String htmlBody) {
+        this.htmlBody = htmlBody;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(OffsetDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public OffsetDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public void setLockedAt(OffsetDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public OffsetDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(OffsetDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getDigestKey() {
+        return digestKey;
+    }
+
+    public void setDigestKey(String digestKey) {
+        this.digestKey = digestKey;
+    }
+
+    public String getDigestProcess() {
+        return digestProcess;
+    }
+
+    public void setDigestProcess(String digestProcess) {
+        this.digestProcess = digestProcess;
+    }
+
+    public String getDigestDetails() {
+        return digestDetails;
+    }
+
+    public void setDigestDetails(String digestDetails) {
+        this.digestDetails = digestDetails;
+    }
+}
@@ -0,0 +1,259 @@
+package com.judicial.processes.repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.config.SupabaseProperties;
+import com.judicial.processes.entity.EmailOutboxMessage;
+
+@Repository
+public class EmailOutboxRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxRepository.class);
+    private static final String TABLE_NAME = "email_outbox";
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_SENDING = "sending";
+    public static final String STATUS_SENT = "sent";
+    public static final String STATUS_FAILED = "failed";
+
+    @Autowired
+    private SupabaseProperties supabaseProperties;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpHeaders createHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("apikey", supabaseProperties.getServiceRoleKey());
+        headers.set("Authorization", "Bearer " + supabaseProperties.getServiceRoleKey());
+        headers.set("Prefer", "return=representation");
+        return headers;
+    }
+
+    public void saveAll(List<EmailOutboxMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            String url = supabaseProperties.getRestUrl() + "/" + TABLE_NAME;
+
+            HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "return=minimal");
+            HttpEntity<List<EmailOutboxMessage>> request = new HttpEntity<>(messages, headers);
+
+            restTemplate.postForEntity(url, request, String.class);
+        } catch (Exception e) {
+            logger.error("Error queueing {} outbox emails", messages.size(), e);
+            throw new RuntimeException("Error queueing emails", e);
+        }
+    }
+
+    /**
+     * Claim up to {@code limit} due messages for delivery. Rows are flipped from
+     * pending to sending with a conditional PATCH, so concurrent workers never
+     * receive the same message.
+     */
+    public List<EmailOutboxMessage> claimDue(int limit) {
+        try {
+            String now = formatTimestamp(OffsetDateTime.now());
+
+            String selectUrl = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("status", "eq." + STATUS_PENDING)
+                .queryParam("next_attempt_at", "lte." + now)
+                .queryParam("select", "id")
+                .queryParam("order", "next_attempt_at.asc")
+                .queryParam("limit", limit)
+                .build()
+                .toUriString();
+
+            HttpEntity<Void> selectRequest = new HttpEntity<>(createHeaders());
+            ResponseEntity<String> selectResponse = restTemplate.exchange(selectUrl, HttpMethod.GET, selectRequest, String.class);
+
+            List<String> ids = new ArrayList<>();
+            if (selectResponse.getStatusCode().is2xxSuccessful() && selectResponse.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(selectResponse.getBody());
+                if (jsonNode.isArray()) {
+                    for (JsonNode node : jsonNode) {
+                        ids.add(node.get("id").asText());
+                    }
+                }
+            }
+
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            return claim(Map.of("id", "in.(" + String.join(",", ids) + ")"), now);
+        } catch (Exception e) {
+            logger.error("Error claiming outbox emails", e);
+            throw new RuntimeException("Error claiming outbox emails", e);
+        }
+    }
+
+    /**
+     * Claim every pending row of the digest {@code digestKey}, due or not, so the
+     * changes recorded after the first one go out in the same email.
+     */
+    public List<EmailOutboxMessage> claimDigest(String digestKey) {
+        try {
+            return claim(Map.of("digest_key", "eq." + digestKey), formatTimestamp(OffsetDateTime.now()));
+        } catch (Exception e) {
+            logger.error("Error claiming outbox digest {}", digestKey, e);
+            throw new RuntimeException("Error claiming outbox digest", e);
+        }
+    }
+
+    /**
+     * Flip the pending rows matching {@code filters} to sending and return them.
+     */
+    private List<EmailOutboxMessage> claim(Map<String, String> filters, String now) throws Exception {
+        UriComponentsBuilder claimUrl = UriComponentsBuilder
+            .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME);
+        filters.forEach(claimUrl::queryParam);
+        claimUrl.queryParam("status", "eq." + STATUS_PENDING);
+
+        Map<String, Object> claim = new HashMap<>();
+        claim.put("status", STATUS_SENDING);
+        claim.put("locked_at", now);
+
+        HttpEntity<Map<String, Object>> claimRequest = new HttpEntity<>(claim, createHeaders());
+        ResponseEntity<String> claimResponse = restTemplate.exchange(claimUrl.build().toUriString(), HttpMethod.PATCH, claimRequest, String.class);
+
+        List<EmailOutboxMessage> claimed = new ArrayList<>();
+        if (claimResponse.getStatusCode().is2xxSuccessful() && claimResponse.getBody() != null) {
+            JsonNode jsonNode = objectMapper.readTree(claimResponse.getBody());
+            if (jsonNode.isArray()) {
+                for (JsonNode node : jsonNode) {
+                    claimed.add(objectMapper.treeToValue(node, EmailOutboxMessage.class));
+                }
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Count messages still waiting for delivery, read from the Content-Range header
+     * so no rows are transferred.
+     */
+    public long countPending() {
+        try {
+            String url = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("status", "in.(" + STATUS_PENDING + "," + STATUS_SENDING + ")")
+                .queryParam("select", "id")
+                .queryParam("limit", 0)
+                .build()
+                .toUriString();
+
+            HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "count=exact");
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+            String contentRange = response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+            if (contentRange == null || !contentRange.contains("/")) {
+                return -1;
+            }
+
+            String total = contentRange.substring(contentRange.indexOf('/') + 1);
+            return "*".equals(total) ? -1 : Long.parseLong(total);
+        } catch (Exception e) {
+            logger.error("Error counting pending outbox emails", e);
+            return -1;
+        }
+    }
+
+    public void markSent(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> update = new HashMap<>();
+        update.put("status", STATUS_SENT);
+        update.put("sent_at", formatTimestamp(OffsetDateTime.now()));
+        update.put("last_error", null);
+
+        patch(Map.of("id", "in.(" + String.join(",", ids) + ")"), update);
+    }
+
+    public void scheduleRetry(String id, int attempts, OffsetDateTime nextAttemptAt, String error) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("status", STATUS_PENDING);
+        update.put("attempts", attempts);
+        update.put("next_attempt_at", formatTimestamp(nextAttemptAt));
+        update.put("locked_at", null);
+        update.put("last_error", error);
+
+        patch(Map.of("id", "eq." + id), update);
+    }
+
+    public void markFailed(String id, int attempts, String error) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("status", STATUS_FAILED);
+        update.put("attempts", attempts);
+        update.put("locked_at", null);
+        update.put("last_error", error);
+
+        patch(Map.of("id", "eq." + id), update);
+    }
+
+    /**
+     * Return messages left in sending by a worker that died mid-batch.
+     */
+    public void releaseStale(OffsetDateTime lockedBefore) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("status", STATUS_PENDING);
+        update.put("locked_at", null);
+
+        patch(Map.of(
+            "status", "eq." + STATUS_SENDING,
+            "locked_at", "lt." + formatTimestamp(lockedBefore)
+        ), update);
+    }
+
+    private void patch(Map<String, String> filters, Map<String, Object> update) {
+        try {
+            UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME);
+            filters.forEach(builder::queryParam);
+
+            HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "return=minimal");
+            HttpEntity<Map<String, Object>> request = new HttpEntity<>(update, headers);
+
+            restTemplate.exchange(builder.build().toUriString(), HttpMethod.PATCH, request, String.class);
+        } catch (Exception e) {
+            logger.error("Error updating outbox emails", e);
+            throw new RuntimeException("Error updating outbox emails", e);
+        }
+    }
+
+    private String formatTimestamp(OffsetDateTime timestamp) {
+        return timestamp.withOffsetSameInstant(ZoneOffset.UTC).toString();
+    }
+}
@@ -1,5 +1,7 @@
 package com.judicial.processes.repository;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -72,6 +74,45 @@ public class NotificationRepository {
         }
     }
 
+    public List<NotificationRecord> saveAll(List<NotificationRecord> notifications) {
+        if (notifications == null || notifications.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            String url = supabaseProperties.getRestUrl() + "/" + TABLE_NAME;
+
+            for (NotificationRecord notification : notifications) {
+                if (notification.getType() == null) {
+                    notification.setType("in_app");
+                }
+            }
+
+            HttpHeaders headers = createHeaders();
+            HttpEntity<List<NotificationRecord>> request = new HttpEntity<>(notifications, headers);
+
+            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                List<NotificationRecord> saved = new ArrayList<>();
+
+                if (jsonNode.isArray()) {
+                    for (JsonNode node : jsonNode) {
+                        saved.add(objectMapper.treeToValue(node, NotificationRecord.class));
+                    }
+                }
+
+                return saved;
+            }
+
+            return notifications;
+        } catch (Exception e) {
+            logger.error("Error saving {} notifications", notifications.size(), e);
+            throw new RuntimeException("Error saving notifications", e);
+        }
+    }
+
     public List<NotificationRecord> findUnreadByUser(String userId, int limit) {
         try {
             UriComponentsBuilder builder = UriComponentsBuilder
@@ -155,9 +196,101 @@ public class NotificationRepository {
         }
     }
 
-    public void markAsRead(String notificationId) {
+    /**
+     * Keyset page of the user's notifications, newest first. When a cursor is given,
+     * only rows strictly older than ({@code createdAt}, {@code id}) are returned, so
+     * pages stay stable while new notifications arrive.
+     */
+    public List<NotificationRecord> findByUserBefore(String userId, int limit, OffsetDateTime createdAt, String id) {
         try {
-            String url = supabaseProperties.getRestUrl() + "/" + TABLE_NAME + "?id=eq." + notificationId;
+            UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("user_id", "eq." + userId)
+                .queryParam("select", "*")
+                .queryParam("order", "created_at.desc,id.desc")
+                .queryParam("limit", limit);
+
+            if (createdAt != null && id != null) {
+                // Quoted because timestamps contain the '.' and ':' PostgREST uses as separators
+                String timestamp = "\"" + createdAt.withOffsetSameInstant(ZoneOffset.UTC) + "\"";
+                builder.queryParam("or", "(created_at.lt." + timestamp
+                    + ",and(created_at.eq." + timestamp + ",id.lt." + id + "))");
+            }
+
+            String url = builder.build().toUriString();
+
+            HttpHeaders headers = createHeaders();
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                List<NotificationRecord> notifications = new ArrayList<>();
+
+                if (jsonNode.isArray()) {
+                    for (JsonNode node : jsonNode) {
+                        notifications.add(objectMapper.treeToValue(node, NotificationRecord.class));
+                    }
+                }
+
+                return notifications;
+            }
+
+            return new ArrayList<>();
+        } catch (Exception e) {
+            logger.error("Error fetching notifications page", e);
+            throw new RuntimeException("Error fetching notifications", e);
+        }
+    }
+
+    /**
+     * Count unread notifications without transferring rows; PostgREST reports the
+     * total in the Content-Range header.
+     */
+    public long countUnreadByUser(String userId) {
+        try {
+            String url = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("user_id", "eq." + userId)
+                .queryParam("is_read", "eq.false")
+                .queryParam("select", "id")
+                .queryParam("limit", 0)
+                .build()
+                .toUriString();
+
+            HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "count=exact");
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+
+            String contentRange = response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE);
+            if (contentRange == null || !contentRange.contains("/")) {
+                throw new IllegalStateException("Missing Content-Range in count response");
+            }
+
+            return Long.parseLong(contentRange.substring(contentRange.indexOf('/') + 1));
+        } catch (Exception e) {
+            logger.error("Error counting unread notifications", e);
+            throw new RuntimeException("Error counting notifications", e);
+        }
+    }
+
+    /**
+     * Mark one of the user's unread notifications as read and return how many rows
+     * changed (0 when it was already read or belongs to someone else).
+     */
+    public int markAsRead(String userId, String notificationId) {
+        try {
+            String url = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("id", "eq." + notificationId)
+                .queryParam("user_id", "eq." + userId)
+                .queryParam("is_read", "eq.false")
+                .queryParam("select", "id")
+                .build()
+                .toUriString();
 
             HttpHeaders headers = createHeaders();
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(
@@ -168,22 +301,73 @@ public class NotificationRepository {
                 headers
             );
 
-            restTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                return jsonNode.isArray() ? jsonNode.size() : 0;
+            }
+
+            return 0;
         } catch (Exception e) {
             logger.error("Error marking notification as read", e);
             throw new RuntimeException("Error updating notification", e);
         }
     }
 
+    /**
+     * Mark several of the user's unread notifications as read with a single PATCH
+     * and return how many rows changed.
+     */
+    public int markAsRead(String userId, List<String> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            String url = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
+                .queryParam("id", "in.(" + String.join(",", notificationIds) + ")")
+                .queryParam("user_id", "eq." + userId)
+                .queryParam("is_read", "eq.false")
+                .queryParam("select", "id")
+                .build()
+                .toUriString();
+
+            HttpHeaders headers = createHeaders();
+            HttpEntity<Map<String, Object>> request = new HttpEntity<>(
+                Map.of(
+                    "is_read", true,
+                    "read_at", java.time.OffsetDateTime.now().toString()
+                ),
+                headers
+            );
+
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PATCH, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                return jsonNode.isArray() ? jsonNode.size() : 0;
+            }
+
+            return 0;
+        } catch (Exception e) {
+            logger.error("Error marking {} notifications as read", notificationIds.size(), e);
+            throw new RuntimeException("Error updating notifications", e);
+        }
+    }
+
     public void markAllAsRead(String userId) {
         try {
             String url = UriComponentsBuilder
                 .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + TABLE_NAME)
                 .queryParam("user_id", "eq." + userId)
+                .queryParam("is_read", "eq.false")
                 .build()
                 .toUriString();
 
             HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "return=minimal");
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(
                 Map.of(
                     "is_read", true,
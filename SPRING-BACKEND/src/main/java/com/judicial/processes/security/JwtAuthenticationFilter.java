@@ -12,9 +12,6 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.judicial.processes.service.SupabaseService;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +23,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
     @Autowired
-    private SupabaseService supabaseService;
+    private SupabaseTokenVerifier tokenVerifier;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -46,9 +43,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
                 try {
-                    JsonNode userNode = supabaseService.getUser(token);
-                    if (userNode != null && userNode.has("id")) {
-                        userId = userNode.get("id").asText();
+                    SupabaseTokenVerifier.VerifiedToken verifiedToken = tokenVerifier.verify(token);
+                    if (verifiedToken != null) {
+                        userId = verifiedToken.userId();
                         logger.debug("JWT Filter - Supabase user validated: {}", userId);
 
                         UsernamePasswordAuthenticationToken authToken = 
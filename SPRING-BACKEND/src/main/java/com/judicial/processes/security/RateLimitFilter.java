@@ -0,0 +1,304 @@
+package com.judicial.processes.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.cache.TtlCache;
+import com.judicial.processes.dto.BatchConsultRequest;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Token-bucket rate limiting for the API. Credential endpoints get the strict
+ * {@code rate-limit.auth} budget per client IP. Endpoints that can trigger a
+ * portal scrape use {@code rate-limit.scrape}: a tight budget per IP for
+ * anonymous clients and a larger one per user, with a batch consult charged one
+ * token per radicación. Every other {@code /api/**} request uses the generous
+ * {@code rate-limit.general}, per user when authenticated and per IP otherwise.
+ * Runs after {@link JwtAuthenticationFilter} so the user is known.
+ *
+ * Behind a reverse proxy every client arrives from the proxy's address, so
+ * {@code rate-limit.trust-forwarded-headers} must be enabled there; otherwise
+ * all anonymous clients share one bucket.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final Set<String> AUTH_PATHS = Set.of(
+        "/api/auth/login",
+        "/api/auth/register",
+        "/api/auth/forgot-password",
+        "/api/auth/reset-password"
+    );
+
+    /** Requests that may scrape the portal, besides the activities/subjects pattern */
+    private static final Set<String> SCRAPE_PATHS = Set.of(
+        "/api/judicial/consult",
+        "/api/judicial/consult/batch",
+        "/api/judicial/search",
+        "/api/judicial/monitor"
+    );
+
+    private static final Pattern SCRAPE_PATH_PATTERN = Pattern.compile("^/api/judicial/[^/]+/(activities|subjects)$");
+
+    private static final String BATCH_PATH = "/api/judicial/consult/batch";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.trust-forwarded-headers:false}")
+    private boolean trustForwardedHeaders;
+
+    @Value("${rate-limit.max-tracked-clients:10000}")
+    private int maxTrackedClients;
+
+    @Value("${rate-limit.auth.requests:5}")
+    private long authRequests;
+
+    @Value("${rate-limit.auth.window:900}")
+    private long authWindowSeconds;
+
+    @Value("${rate-limit.scrape.requests:100}")
+    private long scrapeRequests;
+
+    @Value("${rate-limit.scrape.user-requests:1000}")
+    private long scrapeUserRequests;
+
+    @Value("${rate-limit.scrape.window:3600}")
+    private long scrapeWindowSeconds;
+
+    @Value("${rate-limit.general.requests:1000}")
+    private long generalRequests;
+
+    @Value("${rate-limit.general.window:3600}")
+    private long generalWindowSeconds;
+
+    private TtlCache<String, Bucket> authBuckets;
+
+    private TtlCache<String, Bucket> scrapeBuckets;
+
+    private TtlCache<String, Bucket> generalBuckets;
+
+    private final AtomicBoolean untrustedForwardWarned = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        // A bucket left alone for a full window has refilled completely, so it can be dropped
+        authBuckets = new TtlCache<>(maxTrackedClients, Duration.ofSeconds(authWindowSeconds));
+        scrapeBuckets = new TtlCache<>(maxTrackedClients, Duration.ofSeconds(scrapeWindowSeconds));
+        generalBuckets = new TtlCache<>(maxTrackedClients, Duration.ofSeconds(generalWindowSeconds));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+            || "OPTIONS".equalsIgnoreCase(request.getMethod())
+            || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+        boolean authEndpoint = AUTH_PATHS.contains(path);
+
+        HttpServletRequest chainRequest = request;
+        long tokens = 1;
+
+        String limit;
+        String clientKey;
+        Bucket bucket;
+        if (authEndpoint) {
+            limit = "auth";
+            clientKey = "ip:" + resolveClientIp(request);
+            bucket = authBuckets.get(clientKey, key -> newBucket(authRequests, authWindowSeconds));
+        } else if (SCRAPE_PATHS.contains(path) || SCRAPE_PATH_PATTERN.matcher(path).matches()) {
+            limit = "scrape";
+            String userId = currentUserId();
+            clientKey = userId != null ? "user:" + userId : "ip:" + resolveClientIp(request);
+            long requests = userId != null ? scrapeUserRequests : scrapeRequests;
+            bucket = scrapeBuckets.get(clientKey, key -> newBucket(requests, scrapeWindowSeconds));
+
+            if (BATCH_PATH.equals(path) && "POST".equalsIgnoreCase(request.getMethod())) {
+                // Every radicación of a batch may be scraped, so each one costs a token
+                CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+                chainRequest = cachedRequest;
+                tokens = batchItemCount(cachedRequest.body);
+            }
+        } else {
+            limit = "general";
+            String userId = currentUserId();
+            clientKey = userId != null ? "user:" + userId : "ip:" + resolveClientIp(request);
+            bucket = generalBuckets.get(clientKey, key -> newBucket(generalRequests, generalWindowSeconds));
+        }
+
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        if (probe.isConsumed()) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            filterChain.doFilter(chainRequest, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+        meterRegistry.counter("http.server.requests.throttled", "limit", limit).increment();
+        logger.warn("Rate limit '{}' exceeded for {} on {}", limit, clientKey, path);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", "Demasiadas solicitudes. Intente nuevamente más tarde.");
+        body.put("retryAfter", retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * Radicaciones in a batch consult body, at least 1; bodies the controller will
+     * reject anyway cost a single token.
+     */
+    private long batchItemCount(byte[] body) {
+        try {
+            JsonNode items = objectMapper.readTree(body).path("numerosRadicacion");
+            long count = 0;
+            for (JsonNode item : items) {
+                if (item.isTextual() && !item.asText().isBlank()) {
+                    count++;
+                }
+            }
+            return Math.max(1, Math.min(count, BatchConsultRequest.MAX_ITEMS));
+        } catch (IOException e) {
+            return 1;
+        }
+    }
+
+    private Bucket newBucket(long requests, long windowSeconds) {
+        Duration window = Duration.ofSeconds(windowSeconds);
+        return Bucket.builder()
+            .addLimit(Bandwidth.classic(requests, Refill.intervally(requests, window)))
+            .build();
+    }
+
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private String resolveClientIp(HttpServletRequest request) {
+        if (trustForwardedHeaders) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        } else if (request.getHeader("X-Forwarded-For") != null && untrustedForwardWarned.compareAndSet(false, true)) {
+            logger.warn("Requests carry X-Forwarded-For but rate-limit.trust-forwarded-headers is off; "
+                + "behind a proxy all anonymous clients share the proxy's rate limit bucket");
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Request whose body has been read up front, so it can be inspected here and
+     * still be read by the controller.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.judicial.processes.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.cache.TtlCache;
+import com.judicial.processes.service.SupabaseService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Validates Supabase access tokens. Tokens signed with the project's JWT secret
+ * (HS256) are checked locally; anything that cannot be verified that way is
+ * handed to Supabase Auth as before.
+ *
+ * Validated tokens are cached by their SHA-256 hash until they expire or for a
+ * short TTL, whichever comes first, so repeated requests with the same bearer
+ * token skip verification entirely. Tokens revoked through logout are refused
+ * until they expire.
+ */
+@Component
+public class SupabaseTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupabaseTokenVerifier.class);
+
+    @Autowired
+    private SupabaseService supabaseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.secret:}")
+    private String jwtSecret;
+
+    @Value("${jwt.audience:authenticated}")
+    private String expectedAudience;
+
+    @Value("${jwt.clock-skew.seconds:30}")
+    private long clockSkewSeconds;
+
+    @Value("${jwt.cache.ttl.millis:300000}")
+    private long cacheTtlMillis;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private JwtParser localParser;
+
+    private TtlCache<String, VerifiedToken> validatedTokens;
+
+    private TtlCache<String, Boolean> revokedTokens;
+
+    @PostConstruct
+    public void init() {
+        validatedTokens = new TtlCache<>(cacheMaxSize, Duration.ofMillis(cacheTtlMillis));
+        revokedTokens = new TtlCache<>(cacheMaxSize, Duration.ofMillis(cacheTtlMillis));
+
+        if (jwtSecret == null || jwtSecret.isBlank()) {
+            logger.warn("jwt.secret is not set; every token will be validated against Supabase Auth");
+            return;
+        }
+
+        SecretKey key;
+        try {
+            key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        } catch (WeakKeyException e) {
+            logger.warn("jwt.secret is too short for HS256; every token will be validated against Supabase Auth");
+            return;
+        }
+
+        localParser = Jwts.parser()
+            .verifyWith(key)
+            .clockSkewSeconds(clockSkewSeconds)
+            .build();
+    }
+
+    /**
+     * Return the user behind {@code token}, or {@code null} if the token is not a
+     * valid user access token.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String tokenHash = hash(token);
+        if (revokedTokens.getIfPresent(tokenHash) != null) {
+            return null;
+        }
+
+        VerifiedToken cached = validatedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = verifyUncached(token);
+        if (verified != null) {
+            Duration ttl = ttlFor(verified);
+            if (!ttl.isNegative() && !ttl.isZero()) {
+                validatedTokens.put(tokenHash, verified, ttl);
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Forget a validated token and refuse it for the rest of its lifetime. The
+     * revocation is local to this instance.
+     */
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+
+        String tokenHash = hash(token);
+        VerifiedToken cached = validatedTokens.getIfPresent(tokenHash);
+        validatedTokens.invalidate(tokenHash);
+
+        Instant expiresAt = cached != null ? cached.expiresAt() : readUnverifiedExpiry(token);
+        Duration revokedFor = expiresAt != null
+            ? Duration.between(Instant.now(), expiresAt).plusSeconds(clockSkewSeconds)
+            : Duration.ofMillis(cacheTtlMillis);
+        if (!revokedFor.isNegative() && !revokedFor.isZero()) {
+            revokedTokens.put(tokenHash, Boolean.TRUE, revokedFor);
+        }
+    }
+
+    private VerifiedToken verifyUncached(String token) {
+        if (localParser != null) {
+            try {
+                return verifyLocally(token);
+            } catch (ExpiredJwtException e) {
+                logger.debug("Rejecting expired token for subject {}", e.getClaims().getSubject());
+                return null;
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Local token verification failed ({}), falling back to Supabase Auth", e.getMessage());
+            }
+        }
+
+        return verifyRemotely(token);
+    }
+
+    private VerifiedToken verifyLocally(String token) {
+        Claims claims = localParser.parseSignedClaims(token).getPayload();
+
+        // The anon and service role keys are signed with the same secret but carry no user
+        String userId = claims.getSubject();
+        if (userId == null || userId.isBlank()) {
+            throw new JwtException("Token has no subject");
+        }
+        if (expectedAudience != null && !expectedAudience.isBlank()
+                && (claims.getAudience() == null || !claims.getAudience().contains(expectedAudience))) {
+            throw new JwtException("Unexpected token audience " + claims.getAudience());
+        }
+
+        Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+        return new VerifiedToken(userId, expiresAt);
+    }
+
+    private VerifiedToken verifyRemotely(String token) {
+        JsonNode userNode = supabaseService.getUser(token);
+        if (userNode == null || !userNode.has("id")) {
+            return null;
+        }
+        // Supabase Auth accepted the token, so its own exp claim can bound the cache entry
+        return new VerifiedToken(userNode.get("id").asText(), readUnverifiedExpiry(token));
+    }
+
+    private Duration ttlFor(VerifiedToken verified) {
+        Duration ttl = Duration.ofMillis(cacheTtlMillis);
+        if (verified.expiresAt() == null) {
+            return ttl;
+        }
+
+        Duration untilExpiry = Duration.between(Instant.now(), verified.expiresAt());
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+
+    private Instant readUnverifiedExpiry(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            return payload.has("exp") ? Instant.ofEpochSecond(payload.get("exp").asLong()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * User id taken from a validated token, with the token's expiry when known.
+     */
+    public record VerifiedToken(String userId, Instant expiresAt) {
+    }
+}
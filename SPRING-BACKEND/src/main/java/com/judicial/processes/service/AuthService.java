@@ -1,5 +1,6 @@
 package com.judicial.processes.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
@@ -15,9 +16,14 @@ import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.cache.TtlCache;
 import com.judicial.processes.dto.AuthDTO.AuthResponse;
 import com.judicial.processes.dto.AuthDTO.RegisterRequest;
 import com.judicial.processes.dto.AuthDTO.UserDTO;
+import com.judicial.processes.security.SupabaseTokenVerifier;
+import com.judicial.processes.security.SupabaseTokenVerifier.VerifiedToken;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class AuthService {
@@ -29,6 +35,9 @@ public class AuthService {
     
     @Autowired
     private EmailService emailService;
+
+    @Autowired
+    private SupabaseTokenVerifier tokenVerifier;
     
     @Autowired
     private ObjectMapper objectMapper;
@@ -38,6 +47,19 @@ public class AuthService {
     
     @Value("${frontend.url:http://localhost:3000}")
     private String frontendUrl;
+
+    @Value("${auth.profile-cache.ttl.millis:300000}")
+    private long profileCacheTtlMillis;
+
+    @Value("${auth.profile-cache.max-size:5000}")
+    private int profileCacheMaxSize;
+
+    private TtlCache<String, JsonNode> profileCache;
+
+    @PostConstruct
+    public void init() {
+        profileCache = new TtlCache<>(profileCacheMaxSize, Duration.ofMillis(profileCacheTtlMillis));
+    }
     
     /**
      * Register a new user
@@ -151,13 +173,12 @@ public class AuthService {
                 return null;
             }
 
-            JsonNode userProfile = supabaseService.select("users", Map.of("id", userId));
-            if (userProfile == null || userProfile.size() == 0) {
+            JsonNode user = findUserProfile(userId);
+            if (user == null) {
                 logger.warn("No local profile found for Supabase user id: {}", userId);
                 return null;
             }
 
-            JsonNode user = userProfile.get(0);
             if (user.has("is_active") && !user.get("is_active").asBoolean()) {
                 logger.warn("User account is deactivated: {}", email);
                 return null;
@@ -187,6 +208,7 @@ public class AuthService {
      */
     public boolean logout(String token) {
         try {
+            tokenVerifier.revoke(token);
             return supabaseService.signOut(token);
         } catch (Exception e) {
             logger.error("Logout error", e);
@@ -209,15 +231,15 @@ public class AuthService {
             String userId = supabaseUser.get("id").asText();
             
             // Get user profile
-            JsonNode userProfile = supabaseService.select("users", Map.of("id", userId));
-            if (userProfile == null || userProfile.size() == 0) {
+            JsonNode userProfile = findUserProfile(userId);
+            if (userProfile == null) {
                 return null;
             }
             
             String newAccessToken = result.has("access_token") ? result.get("access_token").asText() : null;
             String newRefreshToken = result.has("refresh_token") ? result.get("refresh_token").asText() : refreshToken;
             
-            UserDTO userDTO = convertJsonToUserDTO(userProfile.get(0));
+            UserDTO userDTO = convertJsonToUserDTO(userProfile);
             
             return new AuthResponse(userDTO, newAccessToken, newRefreshToken, jwtExpiration);
             
@@ -232,23 +254,21 @@ public class AuthService {
      */
     public UserDTO getProfile(String token) {
         try {
-            JsonNode supabaseUser = supabaseService.getUser(token);
+            VerifiedToken verifiedToken = tokenVerifier.verify(token);
             
-            if (supabaseUser == null) {
+            if (verifiedToken == null) {
                 return null;
             }
             
-            String userId = supabaseUser.get("id").asText();
+            String userId = verifiedToken.userId();
             
             // Get user profile from database
-            JsonNode userProfile = supabaseService.select("users", Map.of("id", userId));
+            JsonNode user = findUserProfile(userId);
             
-            if (userProfile == null || userProfile.size() == 0) {
+            if (user == null) {
                 return null;
             }
             
-            JsonNode user = userProfile.get(0);
-            
             // Check if user is active
             if (!user.get("is_active").asBoolean()) {
                 return null;
@@ -267,13 +287,13 @@ public class AuthService {
      */
     public UserDTO updateProfile(String token, UserDTO updateData) {
         try {
-            JsonNode supabaseUser = supabaseService.getUser(token);
+            VerifiedToken verifiedToken = tokenVerifier.verify(token);
             
-            if (supabaseUser == null) {
+            if (verifiedToken == null) {
                 return null;
             }
             
-            String userId = supabaseUser.get("id").asText();
+            String userId = verifiedToken.userId();
             
             Map<String, Object> updateMap = new HashMap<>();
             updateMap.put("updated_at", LocalDateTime.now().toString());
@@ -283,7 +303,16 @@ public class AuthService {
             if (updateData.getPhoneNumber() != null) updateMap.put("phone_number", updateData.getPhoneNumber());
             if (updateData.getNotificationPreferences() != null) updateMap.put("notification_preferences", updateData.getNotificationPreferences());
             
-            JsonNode updatedUser = supabaseService.update("users", userId, updateMap);
+            JsonNode updatedUser;
+            try {
+                updatedUser = supabaseService.update("users", userId, updateMap);
+            } finally {
+                profileCache.invalidate(userId);
+            }
+
+            if (updatedUser != null && updatedUser.isObject() && updatedUser.has("id")) {
+                profileCache.put(userId, updatedUser);
+            }
             
             return convertJsonToUserDTO(updatedUser);
             
@@ -407,6 +436,8 @@ public class AuthService {
             // This is a simplified implementation
             // In a real application, you'd verify the token and update the user's email_verified status
             logger.info("Email verification attempted with token: {}", token);
+            // Nothing is updated yet; once a user's row is marked verified, invalidate
+            // that user's profileCache entry
             return true;
         } catch (Exception e) {
             logger.error("Email verification error", e);
@@ -414,6 +445,16 @@ public class AuthService {
         }
     }
     
+    /**
+     * Load a row from the users table, served from the profile cache when possible.
+     */
+    private JsonNode findUserProfile(String userId) {
+        return profileCache.get(userId, id -> {
+            JsonNode rows = supabaseService.select("users", Map.of("id", id));
+            return rows != null && rows.size() > 0 ? rows.get(0) : null;
+        });
+    }
+
     /**
      * Helper method to determine user type based on document
      */
@@ -0,0 +1,172 @@
+package com.judicial.processes.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.judicial.processes.config.BlockingIoExecutors;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.service.JudicialService.StoredProcess;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Consults many radicaciones at once: everything already stored is read with one
+ * bulk query per table, and only the misses are scraped from the portal, a few at
+ * a time. Results are handed to the caller one item at a time as they complete.
+ */
+@Service
+public class BatchConsultService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchConsultService.class);
+
+    private static final String CONSULTATION_TYPE = "batch_consult";
+
+    @Autowired
+    private JudicialService judicialService;
+
+    @Autowired
+    private JudicialScrapingService scrapingService;
+
+    @Autowired
+    private MissingProcessCache missingProcessCache;
+
+    @Autowired
+    private BlockingIoExecutors blockingIoExecutors;
+
+    @Value("${judicial.batch.scrape-threads:8}")
+    private int scrapeThreads;
+
+    @Value("${judicial.batch.parallelism:4}")
+    private int perRequestParallelism;
+
+    private ExecutorService scrapeExecutor;
+
+    @PostConstruct
+    public void start() {
+        scrapeExecutor = blockingIoExecutors.newFixedExecutor("batch-consult", scrapeThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scrapeExecutor.shutdownNow();
+    }
+
+    /**
+     * Consult every radicación in {@code numerosRadicacion} and pass one result map
+     * per item to {@code sink}, database hits first and scraped items in completion
+     * order. The sink is only ever called from the calling thread.
+     */
+    public void consult(List<String> numerosRadicacion, Boolean soloActivos, String userId,
+                        String ip, String userAgent, Consumer<Map<String, Object>> sink) {
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String numero : numerosRadicacion) {
+            if (numero != null && !numero.isBlank()) {
+                requested.add(numero.trim());
+            }
+        }
+
+        Map<String, StoredProcess> stored = judicialService.getProcessesFromDatabase(requested);
+        if (stored == null) {
+            // Without the stored rows every item would be scraped again; report them as failed instead
+            for (String numero : requested) {
+                judicialService.logConsultation(userId, null, CONSULTATION_TYPE, ip, userAgent, "error", "Database lookup failed");
+                sink.accept(failed(numero, "error", "Error al consultar el proceso"));
+            }
+            return;
+        }
+
+        Deque<String> misses = new ArrayDeque<>();
+        for (String numero : requested) {
+            StoredProcess hit = stored.get(numero);
+            if (hit == null) {
+                misses.add(numero);
+                continue;
+            }
+
+            judicialService.logConsultation(userId, hit.processId(), CONSULTATION_TYPE, ip, userAgent, "success", null);
+            sink.accept(found(numero, hit.data(), "database"));
+        }
+
+        logger.info("Batch consult of {} radicaciones: {} from database, {} to scrape",
+            requested.size(), requested.size() - misses.size(), misses.size());
+
+        boolean activeOnly = soloActivos != null ? soloActivos : false;
+        CompletionService<Map<String, Object>> completions = new ExecutorCompletionService<>(scrapeExecutor);
+        int inFlight = 0;
+        while (!misses.isEmpty() || inFlight > 0) {
+            // Keep at most perRequestParallelism scrapes of this batch running at once
+            while (!misses.isEmpty() && inFlight < perRequestParallelism) {
+                String numero = misses.poll();
+                completions.submit(() -> scrape(numero, activeOnly, userId, ip, userAgent));
+                inFlight++;
+            }
+
+            try {
+                Map<String, Object> result = completions.take().get();
+                inFlight--;
+                sink.accept(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // scrape() handles its own errors, so this only happens on unexpected failures
+                inFlight--;
+                logger.error("Unexpected batch consult failure", e.getCause());
+            }
+        }
+    }
+
+    private Map<String, Object> scrape(String numero, boolean soloActivos, String userId, String ip, String userAgent) {
+        try {
+            ProcessData processData = missingProcessCache.isMissing(numero) ? null : scrapingService.scrapeProcessData(numero, soloActivos);
+            if (processData == null) {
+                judicialService.logConsultation(userId, null, CONSULTATION_TYPE, ip, userAgent, "not_found", "Proceso no encontrado");
+                return failed(numero, "not_found", "No se encontró información del proceso en el portal oficial");
+            }
+
+            String processId = scrapingService.saveProcessData(processData);
+            judicialService.logConsultation(userId, processId, CONSULTATION_TYPE, ip, userAgent, "success", null);
+            return found(numero, processData, "portal");
+        } catch (Exception e) {
+            logger.error("Batch consult failed for process {}", numero, e);
+            judicialService.logConsultation(userId, null, CONSULTATION_TYPE, ip, userAgent, "error", e.getMessage());
+            return failed(numero, "error", "Error al consultar el proceso");
+        }
+    }
+
+    private Map<String, Object> found(String numero, ProcessData processData, String source) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("numeroRadicacion", numero);
+        result.put("success", true);
+        result.put("source", source);
+        result.put("data", processData);
+        return result;
+    }
+
+    private Map<String, Object> failed(String numero, String status, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("numeroRadicacion", numero);
+        result.put("success", false);
+        result.put("status", status);
+        result.put("message", message);
+        return result;
+    }
+}
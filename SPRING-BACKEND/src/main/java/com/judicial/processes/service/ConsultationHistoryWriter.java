@@ -0,0 +1,174 @@
+package com.judicial.processes.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind logger for consultation_history. Requests only enqueue a row; a
+ * background thread writes them in array inserts once a batch fills up or the
+ * flush interval passes. When the queue is full new rows are dropped and counted
+ * rather than slowing down the request.
+ */
+@Service
+public class ConsultationHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultationHistoryWriter.class);
+
+    private static final String TABLE_NAME = "consultation_history";
+
+    // Statuses PostgREST answers when the rows themselves are invalid
+    private static final Set<Integer> REJECTED_DATA_STATUSES = Set.of(400, 409, 413, 422);
+
+    @Autowired
+    private SupabaseService supabaseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${consultation-history.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${consultation-history.batch-size:100}")
+    private int batchSize;
+
+    @Value("${consultation-history.flush-interval.millis:2000}")
+    private long flushIntervalMillis;
+
+    private final Queue<Map<String, Object>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consultation-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("consultation.history.queue.size", queued, AtomicInteger::get)
+            .description("Consultation history rows waiting to be written")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Queue a row for writing. Returns {@code false} if it was dropped because the
+     * queue is full.
+     */
+    public boolean enqueue(Map<String, Object> consultationRecord) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            meterRegistry.counter("consultation.history.rows", "result", "dropped").increment();
+            return false;
+        }
+
+        queue.offer(consultationRecord);
+
+        if (queued.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+        return true;
+    }
+
+    private void flushSafely() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Consultation history flush failed", e);
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+            Map<String, Object> row;
+            while (batch.size() < batchSize && (row = queue.poll()) != null) {
+                batch.add(row);
+            }
+            queued.addAndGet(-batch.size());
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            if (!write(batch) || batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Insert {@code rows} with one request. When PostgREST rejects the data (e.g. a
+     * foreign key violation or an invalid ip_address), the rows are split in halves
+     * and retried, so only the offending rows are lost. Returns {@code false} when
+     * Supabase failed for any other reason (an outage, a bad service key,
+     * throttling) and flushing should stop for now.
+     */
+    private boolean write(List<Map<String, Object>> rows) {
+        try {
+            supabaseService.insertBatch(TABLE_NAME, rows);
+            meterRegistry.counter("consultation.history.rows", "result", "written").increment(rows.size());
+            logger.debug("Wrote {} consultation history rows", rows.size());
+            return true;
+        } catch (Exception e) {
+            boolean rejected = e.getCause() instanceof HttpClientErrorException clientError
+                && REJECTED_DATA_STATUSES.contains(clientError.getStatusCode().value());
+            if (rejected && rows.size() > 1) {
+                int middle = rows.size() / 2;
+                if (!write(rows.subList(0, middle))) {
+                    meterRegistry.counter("consultation.history.rows", "result", "failed").increment(rows.size() - middle);
+                    return false;
+                }
+                return write(rows.subList(middle, rows.size()));
+            }
+
+            // History is best effort; rejected rows and batches lost to an outage are not retried
+            meterRegistry.counter("consultation.history.rows", "result", "failed").increment(rows.size());
+            logger.error("Failed to write {} consultation history rows: {}", rows.size(), e.getMessage());
+            return rejected;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.judicial.processes.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Service;
+
+import com.judicial.processes.entity.EmailOutboxMessage;
+import com.judicial.processes.repository.EmailOutboxRepository;
+import com.judicial.processes.service.EmailService.ProcessDigestItem;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Persistent outbox for outgoing email. Callers only insert rows; a small pool of
+ * workers claims due rows, delivers each claimed batch over one SMTP connection and
+ * reschedules failures with exponential backoff.
+ *
+ * Rows with a digest key are parts of one digest: when the first of them is due,
+ * every pending row with the same key is claimed along with it and they are sent
+ * as a single email.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${email.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    @Value("${email.outbox.workers:2}")
+    private int workerCount;
+
+    @Value("${email.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.outbox.poll-interval.millis:15000}")
+    private long pollIntervalMillis;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff.initial-millis:60000}")
+    private long initialBackoffMillis;
+
+    @Value("${email.outbox.backoff.max-millis:3600000}")
+    private long maxBackoffMillis;
+
+    @Value("${email.outbox.lock-timeout.millis:600000}")
+    private long lockTimeoutMillis;
+
+    @Value("${email.digest.max-items:25}")
+    private int digestMaxItems;
+
+    private final AtomicLong lastStaleRelease = new AtomicLong();
+
+    private final AtomicLong pendingBacklog = new AtomicLong(-1);
+
+    private ScheduledExecutorService workers;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("email.outbox.backlog", pendingBacklog, backlog -> backlog.get() < 0 ? Double.NaN : backlog.get())
+            .description("Outbox emails pending or being sent, as of the last worker poll")
+            .register(meterRegistry);
+
+        if (!outboxEnabled) {
+            logger.info("Email outbox disabled; emails will be sent synchronously");
+            return;
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < workerCount; i++) {
+            workers.scheduleWithFixedDelay(this::drainSafely, pollIntervalMillis * i / workerCount,
+                pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        logger.info("Email outbox started with {} workers", workerCount);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers == null) {
+            return;
+        }
+
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void enqueue(String to, String subject, String htmlContent) {
+        enqueueAll(List.of(new EmailOutboxMessage(to, subject, htmlContent)));
+    }
+
+    public void enqueueAll(List<EmailOutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        if (!outboxEnabled) {
+            for (EmailOutboxMessage message : messages) {
+                try {
+                    emailService.sendEmail(message.getRecipient(), message.getSubject(), message.getHtmlBody());
+                } catch (Exception e) {
+                    logger.error("Failed to send email to {}", message.getRecipient(), e);
+                }
+            }
+            return;
+        }
+
+        emailOutboxRepository.saveAll(messages);
+    }
+
+    public EmailOutboxMessage buildProcessUpdateMessage(String email, String processNumber, String updateDetails) {
+        return new EmailOutboxMessage(
+            email,
+            emailService.buildProcessUpdateSubject(processNumber),
+            emailService.buildProcessUpdateContent(processNumber, updateDetails)
+        );
+    }
+
+    private void drainSafely() {
+        try {
+            releaseStaleClaims();
+            drain();
+            pendingBacklog.set(emailOutboxRepository.countPending());
+        } catch (Exception e) {
+            logger.error("Email outbox drain failed", e);
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<EmailOutboxMessage> batch = emailOutboxRepository.claimDue(batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            deliver(withDigestParts(batch));
+
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Split a claimed batch into the emails to send: each plain row on its own, and
+     * the rows of each digest together with the rest of that digest's pending rows.
+     */
+    private List<List<EmailOutboxMessage>> withDigestParts(List<EmailOutboxMessage> batch) {
+        List<List<EmailOutboxMessage>> emails = new ArrayList<>();
+        Map<String, List<EmailOutboxMessage>> digests = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            if (message.getDigestKey() == null) {
+                emails.add(List.of(message));
+            } else {
+                digests.computeIfAbsent(message.getDigestKey(), key -> new ArrayList<>()).add(message);
+            }
+        }
+
+        for (Map.Entry<String, List<EmailOutboxMessage>> digest : digests.entrySet()) {
+            List<EmailOutboxMessage> parts = digest.getValue();
+            try {
+                parts.addAll(emailOutboxRepository.claimDigest(digest.getKey()));
+            } catch (Exception e) {
+                // Send what was claimed; the other parts go out when they are due
+                logger.warn("Unable to claim the rest of digest {}", digest.getKey(), e);
+            }
+            parts.sort(Comparator.comparing(EmailOutboxMessage::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+            emails.add(parts);
+        }
+        return emails;
+    }
+
+    private void deliver(List<List<EmailOutboxMessage>> emails) {
+        List<EmailOutboxMessage> batch = new ArrayList<>();
+        Map<MimeMessage, List<EmailOutboxMessage>> prepared = new LinkedHashMap<>();
+        for (List<EmailOutboxMessage> parts : emails) {
+            batch.addAll(parts);
+            EmailOutboxMessage message = parts.size() == 1 ? parts.get(0) : mergeDigest(parts);
+            try {
+                prepared.put(emailService.createMessage(message.getRecipient(), message.getSubject(), message.getHtmlBody()), parts);
+            } catch (Exception e) {
+                logger.error("Unable to build outbox email {} for {}", parts.get(0).getId(), message.getRecipient(), e);
+                for (EmailOutboxMessage part : parts) {
+                    emailOutboxRepository.markFailed(part.getId(), part.getAttempts() + 1, truncate(e.getMessage()));
+                }
+            }
+        }
+
+        if (prepared.isEmpty()) {
+            return;
+        }
+
+        List<String> sentIds = new ArrayList<>();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            emailService.sendBatch(prepared.keySet().toArray(new MimeMessage[0]));
+            prepared.values().forEach(parts -> parts.forEach(message -> sentIds.add(message.getId())));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (Map.Entry<MimeMessage, List<EmailOutboxMessage>> entry : prepared.entrySet()) {
+                Exception failure = failedMessages.get(entry.getKey());
+                for (EmailOutboxMessage message : entry.getValue()) {
+                    if (failure == null && !failedMessages.isEmpty()) {
+                        sentIds.add(message.getId());
+                    } else {
+                        handleFailure(message, failure != null ? failure : e);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            prepared.values().forEach(parts -> parts.forEach(message -> handleFailure(message, e)));
+        } finally {
+            sample.stop(meterRegistry.timer("email.outbox.delivery"));
+        }
+
+        emailOutboxRepository.markSent(sentIds);
+        recordSent(batch, sentIds);
+        logger.info("Email outbox delivered {} of {} messages", sentIds.size(), batch.size());
+    }
+
+    /**
+     * One email for all parts of a digest, oldest first. A later change to the same
+     * process replaces the earlier one.
+     */
+    private EmailOutboxMessage mergeDigest(List<EmailOutboxMessage> parts) {
+        Map<String, String> changes = new LinkedHashMap<>();
+        EmailOutboxMessage latest = parts.get(parts.size() - 1);
+        for (EmailOutboxMessage part : parts) {
+            changes.put(part.getDigestProcess(), part.getDigestDetails());
+        }
+
+        if (changes.size() == 1) {
+            return latest;
+        }
+
+        List<ProcessDigestItem> items = new ArrayList<>();
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (items.size() >= digestMaxItems) {
+                break;
+            }
+            items.add(new ProcessDigestItem(change.getKey(), change.getValue()));
+        }
+
+        return new EmailOutboxMessage(
+            latest.getRecipient(),
+            emailService.buildProcessDigestSubject(changes.size()),
+            emailService.buildProcessDigestContent(items, changes.size() - items.size())
+        );
+    }
+
+    private void handleFailure(EmailOutboxMessage message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        String reason = truncate(error.getMessage());
+
+        if (attempts >= maxAttempts) {
+            logger.error("Giving up on outbox email {} to {} after {} attempts: {}",
+                message.getId(), message.getRecipient(), attempts, reason);
+            emailOutboxRepository.markFailed(message.getId(), attempts, reason);
+            meterRegistry.counter("email.outbox.messages", "result", "failed").increment();
+            return;
+        }
+
+        meterRegistry.counter("email.outbox.messages", "result", "retried").increment();
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        logger.warn("Outbox email {} to {} failed (attempt {}), retrying in {} ms: {}",
+            message.getId(), message.getRecipient(), attempts, backoff, reason);
+        emailOutboxRepository.scheduleRetry(message.getId(), attempts, OffsetDateTime.now().plus(Duration.ofMillis(backoff)), reason);
+    }
+
+    /**
+     * Count delivered messages and record how long each waited in the outbox.
+     */
+    private void recordSent(List<EmailOutboxMessage> batch, List<String> sentIds) {
+        meterRegistry.counter("email.outbox.messages", "result", "sent").increment(sentIds.size());
+
+        Timer queueTime = Timer.builder("email.outbox.queue.time")
+            .description("Time from enqueue to successful delivery")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        OffsetDateTime now = OffsetDateTime.now();
+        for (EmailOutboxMessage message : batch) {
+            if (message.getCreatedAt() != null && sentIds.contains(message.getId())) {
+                queueTime.record(Duration.between(message.getCreatedAt(), now));
+            }
+        }
+    }
+
+    private void releaseStaleClaims() {
+        long now = System.currentTimeMillis();
+        long last = lastStaleRelease.get();
+        if (now - last < lockTimeoutMillis || !lastStaleRelease.compareAndSet(last, now)) {
+            return;
+        }
+
+        emailOutboxRepository.releaseStale(OffsetDateTime.now().minus(Duration.ofMillis(lockTimeoutMillis)));
+    }
+
+    private String truncate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+    }
+}
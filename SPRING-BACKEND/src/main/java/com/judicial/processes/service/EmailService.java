@@ -2,15 +2,18 @@ package com.judicial.processes.service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
 @Service
@@ -32,15 +35,7 @@ public class EmailService {
      */
     public void sendEmail(String to, String subject, String htmlContent) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
+            mailSender.send(createMessage(to, subject, htmlContent));
             logger.info("Email sent successfully to: {}", to);
             
         } catch (Exception e) {
@@ -49,6 +44,29 @@ public class EmailService {
         }
     }
     
+    /**
+     * Build a MIME message without sending it
+     */
+    public MimeMessage createMessage(String to, String subject, String htmlContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        
+        return message;
+    }
+    
+    /**
+     * Send several messages over a single SMTP connection.
+     * Failures are reported per message through {@link MailSendException#getFailedMessages()}.
+     */
+    public void sendBatch(MimeMessage... messages) {
+        mailSender.send(messages);
+    }
+    
     /**
      * Send email verification email
      */
@@ -91,7 +109,15 @@ public class EmailService {
      * Send process update notification
      */
     public void sendProcessUpdateNotification(String email, String processNumber, String updateDetails) {
-        String htmlContent = buildProcessNotificationTemplate(
+        sendEmail(email, buildProcessUpdateSubject(processNumber), buildProcessUpdateContent(processNumber, updateDetails));
+    }
+    
+    public String buildProcessUpdateSubject(String processNumber) {
+        return "Process Update: " + processNumber;
+    }
+    
+    public String buildProcessUpdateContent(String processNumber, String updateDetails) {
+        return buildProcessNotificationTemplate(
             "Process Update Alert",
             "Your Process Has Been Updated",
             processNumber,
@@ -99,8 +125,24 @@ public class EmailService {
             "You received this notification because you have enabled process update alerts.",
             "#28a745"
         );
-        
-        sendEmail(email, "Process Update: " + processNumber, htmlContent);
+    }
+    
+    /**
+     * Build a single email summarising several process updates for one user
+     */
+    public String buildProcessDigestSubject(int updateCount) {
+        return "Process Updates: " + updateCount + " processes changed";
+    }
+    
+    public String buildProcessDigestContent(List<ProcessDigestItem> items, int omittedCount) {
+        return buildProcessDigestTemplate(
+            "Process Updates Digest",
+            "Your Processes Have Been Updated",
+            items,
+            omittedCount,
+            "You received this digest because you have enabled process update alerts.",
+            "#28a745"
+        );
     }
     
     /**
@@ -244,6 +286,62 @@ public class EmailService {
         );
     }
     
+    /**
+     * Build process digest template
+     */
+    private String buildProcessDigestTemplate(String title, String heading,
+                                            List<ProcessDigestItem> items, int omittedCount,
+                                            String footer, String color) {
+        StringBuilder updates = new StringBuilder();
+        for (ProcessDigestItem item : items) {
+            updates.append("<div class=\"update-box\">")
+                .append("<h3>").append(item.getProcessNumber()).append("</h3>")
+                .append("<p>").append(item.getDetails()).append("</p>")
+                .append("</div>");
+        }
+        if (omittedCount > 0) {
+            updates.append("<p>And ").append(omittedCount).append(" more updates.</p>");
+        }
+        
+        return String.format(
+            "<!DOCTYPE html>" +
+            "<html>" +
+            "<head>" +
+            "<meta charset=\"utf-8\">" +
+            "<title>%s</title>" +
+            "<style>" +
+            ".container { max-width: 600px; margin: 0 auto; font-family: Arial, sans-serif; }" +
+            ".header { background-color: %s; color: white; padding: 20px; text-align: center; }" +
+            ".content { padding: 30px; background-color: #f9f9f9; }" +
+            ".update-box { " +
+            "background-color: #e9f7ef; " +
+            "border-left: 4px solid %s; " +
+            "padding: 15px; " +
+            "margin: 20px 0;" +
+            "}" +
+            ".footer { text-align: center; color: #666; padding: 20px; }" +
+            "</style>" +
+            "</head>" +
+            "<body>" +
+            "<div class=\"container\">" +
+            "<div class=\"header\">" +
+            "<h1>%s</h1>" +
+            "</div>" +
+            "<div class=\"content\">" +
+            "<h2>%s</h2>" +
+            "%s" +
+            "<p>Please log in to your account to view the complete details.</p>" +
+            "</div>" +
+            "<div class=\"footer\">" +
+            "<p>%s</p>" +
+            "</div>" +
+            "</div>" +
+            "</body>" +
+            "</html>",
+            title, color, color, title, heading, updates.toString(), footer
+        );
+    }
+    
     /**
      * Build weekly summary template
      */
@@ -323,4 +421,22 @@ public class EmailService {
         public int getNewDocuments() { return newDocuments; }
         public void setNewDocuments(int newDocuments) { this.newDocuments = newDocuments; }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Process digest entry
+     */
+    public static class ProcessDigestItem {
+        private String processNumber;
+        private String details;
+        
+        public ProcessDigestItem(String processNumber, String details) {
+            this.processNumber = processNumber;
+            this.details = details;
+        }
+        
+        public String getProcessNumber() { return processNumber; }
+        public void setProcessNumber(String processNumber) { this.processNumber = processNumber; }
+        public String getDetails() { return details; }
+        public void setDetails(String details) { this.details = details; }
+    }
+}
@@ -1,17 +1,23 @@
 package com.judicial.processes.service;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -19,6 +25,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -29,15 +36,28 @@ import com.judicial.processes.dto.ProcessData;
 import com.judicial.processes.dto.ProcessDocument;
 import com.judicial.processes.dto.ProcessSubject;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class JudicialScrapingService {
     
     private static final Logger logger = LoggerFactory.getLogger(JudicialScrapingService.class);
     
-    private static final String BASE_URL = "https://consultaprocesos.ramajudicial.gov.co";
-    private static final String API_BASE = BASE_URL + "/api";
-    private static final String PORTAL_API_URL = "https://consultaprocesos.ramajudicial.gov.co:448/api/v2/Procesos/Consulta/NumeroRadicacion";
-    private static final String ACTIVITIES_API_URL = "https://consultaprocesos.ramajudicial.gov.co:448/api/v2/Proceso/Actuaciones";
+    /** Public site of the portal, also serving the /api endpoints without an explicit port */
+    @Value("${portal.base-url:https://consultaprocesos.ramajudicial.gov.co}")
+    private String baseUrl;
+    
+    /** The same portal API exposed on port 448 */
+    @Value("${portal.api-url:https://consultaprocesos.ramajudicial.gov.co:448}")
+    private String apiUrl;
+    
+    private String apiBase;
+    private String portalApiUrl;
+    private String activitiesApiUrl;
+    private String subjectsApiUrl;
+    private String apiHost;
     
     @Autowired
     private SupabaseService supabaseService;
@@ -48,34 +68,66 @@ public class JudicialScrapingService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PortalRequestHedger portalRequestHedger;
+
+    @Autowired
+    private PortalVariantSelector portalVariantSelector;
+
+    @Autowired
+    private MissingProcessCache missingProcessCache;
+
+    @PostConstruct
+    public void init() {
+        apiBase = baseUrl + "/api";
+        portalApiUrl = apiUrl + "/api/v2/Procesos/Consulta/NumeroRadicacion";
+        activitiesApiUrl = apiUrl + "/api/v2/Proceso/Actuaciones";
+        subjectsApiUrl = apiUrl + "/api/v1/Process/GetSujetosProcesales";
+        apiHost = URI.create(apiUrl).getAuthority();
+    }
+
+    /**
+     * Call the portal and record the latency per endpoint and outcome, so slow or
+     * failing portal endpoints show up in /actuator/metrics.
+     */
+    private ResponseEntity<String> exchangePortal(String endpoint, String url, HttpMethod method, HttpEntity<?> entity, Class<String> responseType) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(url, method, entity, responseType);
+            outcome = response.getStatusCode().is2xxSuccessful() ? "success" : "status_" + response.getStatusCode().value();
+            return response;
+        } catch (HttpStatusCodeException e) {
+            outcome = "status_" + e.getStatusCode().value();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("judicial.portal.requests")
+                .description("Latency of calls to the Rama Judicial portal")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * GET from the portal through the hedger, which may send a second attempt when
+     * the first is slow. Only for idempotent reads.
+     */
+    private ResponseEntity<String> exchangePortalHedged(String endpoint, String url, HttpEntity<?> entity) {
+        return portalRequestHedger.execute(endpoint, () -> exchangePortal(endpoint, url, HttpMethod.GET, entity, String.class));
+    }
+
     /**
      * Add headers that mimic the browser/frontend requests as closely as possible.
      */
     private void applyBrowserHeaders(HttpHeaders headers, String referer, String cookies, boolean includeHostWithPort) {
-        if (headers == null) return;
-        headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-        headers.set("Accept", "application/json, text/plain, */*");
-        headers.set("Accept-Language", "es-ES,es;q=0.9,en;q=0.8");
-        if (referer != null) headers.set("Referer", referer);
-        headers.set("Origin", BASE_URL);
-        headers.set("Connection", "keep-alive");
-        headers.set("Sec-Fetch-Dest", "empty");
-        headers.set("Sec-Fetch-Mode", "cors");
-        headers.set("Sec-Fetch-Site", "same-site");
-        headers.set("X-Requested-With", "XMLHttpRequest");
-        headers.set("Accept-Encoding", "gzip, deflate, br");
-
-        // Client hints (may help bypass checks)
-        headers.set("Sec-CH-UA", "\"Chromium\";v=\"120\", \"Google Chrome\";v=\"120\", \"Not:A-Brand\";v=\"99\"");
-        headers.set("Sec-CH-UA-Mobile", "?0");
-        headers.set("Sec-CH-UA-Platform", "\"Windows\"");
-
-        if (cookies != null) headers.set("Cookie", cookies);
-
-        if (includeHostWithPort) {
-            // When calling explicit :448 endpoints, set Host header to include port
-            headers.set("Host", "consultaprocesos.ramajudicial.gov.co:448");
-        }
+        // When calling explicit :448 endpoints, set Host header to include port
+        PortalBrowserHeaders.applyApiHeaders(headers, baseUrl, referer, cookies, includeHostWithPort ? apiHost : null);
     }
     
     /**
@@ -90,28 +142,18 @@ public class JudicialScrapingService {
      */
     private String fetchPortalCookies(String numeroRadicacion) {
         try {
-            String url = BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion.trim();
+            String url = baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion.trim();
 
             HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            headers.set("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
-            headers.set("Accept-Language", "es-ES,es;q=0.9");
-            headers.set("Referer", BASE_URL);
+            PortalBrowserHeaders.applyPageHeaders(headers, baseUrl);
 
             HttpEntity<String> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-
-            List<String> setCookies = response.getHeaders().get(HttpHeaders.SET_COOKIE);
-            if (setCookies != null && !setCookies.isEmpty()) {
-                StringBuilder cookieBuilder = new StringBuilder();
-                for (String c : setCookies) {
-                    int idx = c.indexOf(';');
-                    String part = idx > 0 ? c.substring(0, idx) : c;
-                    if (cookieBuilder.length() > 0) cookieBuilder.append("; ");
-                    cookieBuilder.append(part);
-                }
-                logger.debug("Fetched portal cookies: {}", cookieBuilder.toString());
-                return cookieBuilder.toString();
+            ResponseEntity<String> response = exchangePortal("cookies", url, HttpMethod.GET, entity, String.class);
+
+            String cookies = PortalBrowserHeaders.cookieHeader(response.getHeaders().get(HttpHeaders.SET_COOKIE));
+            if (cookies != null) {
+                logger.debug("Fetched portal cookies: {}", cookies);
+                return cookies;
             }
         } catch (Exception e) {
             logger.debug("Could not fetch portal cookies: {}", e.getMessage());
@@ -167,7 +209,7 @@ public class JudicialScrapingService {
         try {
             // Build the request URL
             UriComponentsBuilder uriBuilder = UriComponentsBuilder
-                .fromHttpUrl(PORTAL_API_URL)
+                .fromHttpUrl(portalApiUrl)
                 .queryParam("numero", numeroRadicacion.trim())
                 .queryParam("SoloActivos", soloActivos != null ? soloActivos : false)
                 .queryParam("pagina", 1);
@@ -175,85 +217,27 @@ public class JudicialScrapingService {
             // Set headers to mimic browser request exactly as frontend
             String portalCookies = fetchPortalCookies(numeroRadicacion);
             HttpHeaders headers = new HttpHeaders();
-            applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
+            applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
 
             HttpEntity<String> entity = new HttpEntity<>(headers);
             
             logger.debug("Making request to portal API: {}", uriBuilder.toUriString());
             
-            ResponseEntity<String> response = restTemplate.exchange(
-                uriBuilder.toUriString(),
-                HttpMethod.GET,
-                entity,
-                String.class
-            );
+            ResponseEntity<String> response = exchangePortalHedged("basic-info", uriBuilder.toUriString(), entity);
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 JsonNode responseJson = objectMapper.readTree(response.getBody());
-                
-                if (responseJson.has("procesos") && responseJson.get("procesos").isArray() 
-                    && responseJson.get("procesos").size() > 0) {
-                    
-                    JsonNode proceso = responseJson.get("procesos").get(0);
-                    
-                    // Extract demandante and demandado from sujetosProcesales field
-                    String demandante = "NO DISPONIBLE";
-                    String demandado = "NO DISPONIBLE";
-                    
-                    if (proceso.has("sujetosProcesales") && !proceso.get("sujetosProcesales").isNull()) {
-                        String sujetos = proceso.get("sujetosProcesales").asText();
-                        
-                        // Extract demandante
-                        Pattern demandantePattern = Pattern.compile("Demandante:\\s*([^|]+)", Pattern.CASE_INSENSITIVE);
-                        Matcher demandanteMatcher = demandantePattern.matcher(sujetos);
-                        if (demandanteMatcher.find()) {
-                            demandante = demandanteMatcher.group(1).trim();
-                        }
-                        
-                        // Extract demandado
-                        Pattern demandadoPattern = Pattern.compile("Demandado:\\s*([^|]+)", Pattern.CASE_INSENSITIVE);
-                        Matcher demandadoMatcher = demandadoPattern.matcher(sujetos);
-                        if (demandadoMatcher.find()) {
-                            demandado = demandadoMatcher.group(1).trim();
-                        }
-                    }
-                    
-                    ProcessData processData = new ProcessData();
-                    
-                    // Portal API fields
-                    processData.setIdProceso(proceso.has("idProceso") ? proceso.get("idProceso").asLong() : null);
-                    processData.setIdConexion(proceso.has("idConexion") ? proceso.get("idConexion").asLong() : null);
-                    processData.setNumeroRadicacion(proceso.has("llaveProceso") ? proceso.get("llaveProceso").asText() : numeroRadicacion);
-                    
-                    // Date fields
-                    if (proceso.has("fechaProceso") && !proceso.get("fechaProceso").isNull()) {
-                        String fechaProceso = proceso.get("fechaProceso").asText();
-                        processData.setFechaRadicacion(fechaProceso.contains("T") ? fechaProceso.split("T")[0] : fechaProceso);
-                        processData.setFechaProceso(fechaProceso);
-                    }
-                    
-                    if (proceso.has("fechaUltimaActuacion") && !proceso.get("fechaUltimaActuacion").isNull()) {
-                        processData.setFechaUltimaActuacion(proceso.get("fechaUltimaActuacion").asText());
-                    }
-                    
-                    // Court and case info
-                    processData.setDespacho(proceso.has("despacho") ? proceso.get("despacho").asText() : "DESPACHO NO DISPONIBLE");
-                    processData.setDepartamento(proceso.has("departamento") ? proceso.get("departamento").asText() : null);
-                    processData.setTipoProceso(proceso.has("departamento") ? proceso.get("departamento").asText() : "TIPO NO DISPONIBLE");
-                    
-                    // Parties information
-                    processData.setDemandante(demandante);
-                    processData.setDemandado(demandado);
-                    processData.setSujetosProcesales(proceso.has("sujetosProcesales") ? proceso.get("sujetosProcesales").asText() : null);
-                    
-                    // Process metadata
-                    processData.setCantidadFolios(proceso.has("cantFilas") ? proceso.get("cantFilas").asInt() : 0);
-                    processData.setEsPrivado(proceso.has("esPrivado") && proceso.get("esPrivado").asBoolean());
-                    processData.setEstado("Activo"); // Default state for new processes
-                    processData.setPortalUrl(BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion);
-                    
-                    return processData;
+                ProcessData basicInfo = PortalResponseParser.parseBasicInfo(responseJson, numeroRadicacion,
+                    baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion);
+                if (basicInfo != null) {
+                    missingProcessCache.forget(numeroRadicacion);
+                } else if (!Boolean.TRUE.equals(soloActivos)
+                        && responseJson.path("procesos").isArray() && responseJson.path("procesos").isEmpty()) {
+                    // The portal answered and has no such process; remember it for a while.
+                    // An empty answer to SoloActivos only means no active process, so it is not remembered
+                    missingProcessCache.markMissing(numeroRadicacion);
                 }
+                return basicInfo;
             }
             
             return null;
@@ -262,19 +246,25 @@ public class JudicialScrapingService {
             logger.error("Error getting basic info for {}: {}", numeroRadicacion, error.getMessage());
             
             // Fallback to basic data if API fails
-            ProcessData fallback = new ProcessData();
-            fallback.setNumeroRadicacion(numeroRadicacion);
-            fallback.setFechaRadicacion(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-            fallback.setDespacho("CONSULTADO - API NO DISPONIBLE");
-            fallback.setDemandante("PROCESO ENCONTRADO");
-            fallback.setDemandado("PROCESO ENCONTRADO");
-            fallback.setTipoProceso("CONSULTA REALIZADA");
-            fallback.setEsPrivado(false);
-            fallback.setPortalUrl(BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion);
-            
-            return fallback;
+            return fallbackBasicInfo(numeroRadicacion, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion);
         }
     }
+
+    /**
+     * Placeholder basic info returned when the portal API cannot be reached.
+     */
+    static ProcessData fallbackBasicInfo(String numeroRadicacion, String portalUrl) {
+        ProcessData fallback = new ProcessData();
+        fallback.setNumeroRadicacion(numeroRadicacion);
+        fallback.setFechaRadicacion(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        fallback.setDespacho("CONSULTADO - API NO DISPONIBLE");
+        fallback.setDemandante("PROCESO ENCONTRADO");
+        fallback.setDemandado("PROCESO ENCONTRADO");
+        fallback.setTipoProceso("CONSULTA REALIZADA");
+        fallback.setEsPrivado(false);
+        fallback.setPortalUrl(portalUrl);
+        return fallback;
+    }
     
     /**
      * Get process activities/actuaciones using real API
@@ -287,45 +277,21 @@ public class JudicialScrapingService {
 
             // Build the request URL
             UriComponentsBuilder uriBuilder = UriComponentsBuilder
-                .fromHttpUrl(ACTIVITIES_API_URL)
+                .fromHttpUrl(activitiesApiUrl)
                 .queryParam("numero", numeroRadicacion.trim())
                 .queryParam("pagina", 1);
             
             // Set headers to mimic frontend browser request more closely
             HttpHeaders headers = new HttpHeaders();
-            applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
+            applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
             HttpEntity<String> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                uriBuilder.toUriString(),
-                HttpMethod.GET,
-                entity,
-                String.class
-            );
+            ResponseEntity<String> response = exchangePortalHedged("activities", uriBuilder.toUriString(), entity);
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 JsonNode responseJson = objectMapper.readTree(response.getBody());
-                
-                if (responseJson.has("actuaciones") && responseJson.get("actuaciones").isArray()) {
-                    List<ProcessActivity> activities = new ArrayList<>();
-                    
-                    for (JsonNode actNode : responseJson.get("actuaciones")) {
-                        ProcessActivity activity = new ProcessActivity();
-                        
-                        activity.setIdActuacion(actNode.has("idActuacion") ? actNode.get("idActuacion").asLong() : null);
-                        activity.setConsActuacion(actNode.has("consActuacion") ? actNode.get("consActuacion").asLong() : null);
-                        activity.setFechaActuacion(actNode.has("fechaActuacion") ? actNode.get("fechaActuacion").asText() : null);
-                        activity.setActuacion(actNode.has("actuacion") ? actNode.get("actuacion").asText() : null);
-                        activity.setAnotacion(actNode.has("anotacion") ? actNode.get("anotacion").asText() : null);
-                        activity.setFechaInicioTermino(actNode.has("fechaInicioTermino") ? actNode.get("fechaInicioTermino").asText() : null);
-                        activity.setFechaFinalizaTermino(actNode.has("fechaFinalizaTermino") ? actNode.get("fechaFinalizaTermino").asText() : null);
-                        activity.setCodigoRegla(actNode.has("codigoRegla") ? actNode.get("codigoRegla").asText() : null);
-                        activity.setConDocumentos(actNode.has("conDocumentos") && actNode.get("conDocumentos").asBoolean());
-                        activity.setCantFolios(actNode.has("cantFolios") ? actNode.get("cantFolios").asInt() : 0);
-                        
-                        activities.add(activity);
-                    }
-                    
+                List<ProcessActivity> activities = PortalResponseParser.parseActivities(responseJson);
+                if (activities != null) {
                     return activities;
                 }
             }
@@ -338,16 +304,16 @@ public class JudicialScrapingService {
             // If initial attempt fails, try alternate URL without explicit :448 (some endpoints differ)
             logger.warn("Initial activities request failed for {}. Trying alternate host without :448.", numeroRadicacion);
                 try {
-                String altUrl = BASE_URL + "/api/v2/Proceso/Actuaciones";
+                String altUrl = apiBase + "/v2/Proceso/Actuaciones";
                 UriComponentsBuilder altBuilder = UriComponentsBuilder.fromHttpUrl(altUrl)
                     .queryParam("numero", numeroRadicacion.trim())
                     .queryParam("pagina", 1);
 
                 HttpHeaders altHeaders = new HttpHeaders();
-                applyBrowserHeaders(altHeaders, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
+                applyBrowserHeaders(altHeaders, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
                 HttpEntity<String> altEntity = new HttpEntity<>(altHeaders);
 
-                ResponseEntity<String> altResponse = restTemplate.exchange(
+                ResponseEntity<String> altResponse = exchangePortal("activities",
                     altBuilder.toUriString(),
                     HttpMethod.GET,
                     altEntity,
@@ -356,24 +322,8 @@ public class JudicialScrapingService {
 
                 if (altResponse.getStatusCode() == HttpStatus.OK && altResponse.getBody() != null) {
                     JsonNode responseJson = objectMapper.readTree(altResponse.getBody());
-                    if (responseJson.has("actuaciones") && responseJson.get("actuaciones").isArray()) {
-                        List<ProcessActivity> activities = new ArrayList<>();
-                        for (JsonNode actNode : responseJson.get("actuaciones")) {
-                            ProcessActivity activity = new ProcessActivity();
-
-                            activity.setIdActuacion(actNode.has("idActuacion") ? actNode.get("idActuacion").asLong() : null);
-                            activity.setConsActuacion(actNode.has("consActuacion") ? actNode.get("consActuacion").asLong() : null);
-                            activity.setFechaActuacion(actNode.has("fechaActuacion") ? actNode.get("fechaActuacion").asText() : null);
-                            activity.setActuacion(actNode.has("actuacion") ? actNode.get("actuacion").asText() : null);
-                            activity.setAnotacion(actNode.has("anotacion") ? actNode.get("anotacion").asText() : null);
-                            activity.setFechaInicioTermino(actNode.has("fechaInicioTermino") ? actNode.get("fechaInicioTermino").asText() : null);
-                            activity.setFechaFinalizaTermino(actNode.has("fechaFinalizaTermino") ? actNode.get("fechaFinalizaTermino").asText() : null);
-                            activity.setCodigoRegla(actNode.has("codigoRegla") ? actNode.get("codigoRegla").asText() : null);
-                            activity.setConDocumentos(actNode.has("conDocumentos") && actNode.get("conDocumentos").asBoolean());
-                            activity.setCantFolios(actNode.has("cantFolios") ? actNode.get("cantFolios").asInt() : 0);
-
-                            activities.add(activity);
-                        }
+                    List<ProcessActivity> activities = PortalResponseParser.parseActivities(responseJson);
+                    if (activities != null) {
                         return activities;
                     }
                 } else {
@@ -399,11 +349,11 @@ public class JudicialScrapingService {
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
+            applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                API_BASE + "/v1/Process/GetSujetosProcesales",
+            ResponseEntity<String> response = exchangePortal("subjects",
+                apiBase + "/v1/Process/GetSujetosProcesales",
                 HttpMethod.POST,
                 entity,
                 String.class
@@ -411,26 +361,8 @@ public class JudicialScrapingService {
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 JsonNode responseJson = objectMapper.readTree(response.getBody());
-
-                if (responseJson.has("isSuccess") && responseJson.get("isSuccess").asBoolean() 
-                    && responseJson.has("lsData") && responseJson.get("lsData").isArray()) {
-
-                    List<ProcessSubject> subjects = new ArrayList<>();
-                    
-                    for (JsonNode subjectNode : responseJson.get("lsData")) {
-                        ProcessSubject subject = new ProcessSubject();
-                        
-                        subject.setIdSujetoProceso(subjectNode.has("lnIdSujetoProceso") ? subjectNode.get("lnIdSujetoProceso").asLong() : null);
-                        subject.setNombreSujeto(subjectNode.has("lsNombreSujeto") ? subjectNode.get("lsNombreSujeto").asText() : null);
-                        subject.setTipoSujeto(subjectNode.has("lsTipoSujeto") ? subjectNode.get("lsTipoSujeto").asText() : null);
-                        subject.setIdentificacion(subjectNode.has("lsIdentificacion") ? subjectNode.get("lsIdentificacion").asText() : null);
-                        subject.setTipoIdentificacion(subjectNode.has("lsTipoIdentificacion") ? subjectNode.get("lsTipoIdentificacion").asText() : null);
-                        subject.setApoderado(subjectNode.has("lsApoderado") ? subjectNode.get("lsApoderado").asText() : null);
-                        subject.setTieneApoderado(subjectNode.has("lbTieneApoderado") && "S".equals(subjectNode.get("lbTieneApoderado").asText()));
-                        
-                        subjects.add(subject);
-                    }
-                    
+                List<ProcessSubject> subjects = PortalResponseParser.parseSubjects(responseJson);
+                if (subjects != null) {
                     return subjects;
                 }
             } else {
@@ -442,10 +374,10 @@ public class JudicialScrapingService {
             logger.error("Error getting subjects for {}: {}", numeroRadicacion, error.getMessage());
             // Try alternate host with :448 if initial POST fails
             try {
-                String altUrl = "https://consultaprocesos.ramajudicial.gov.co:448/api/v1/Process/GetSujetosProcesales";
+                String altUrl = subjectsApiUrl;
                 HttpHeaders altHeaders = new HttpHeaders();
                 altHeaders.setContentType(MediaType.APPLICATION_JSON);
-                applyBrowserHeaders(altHeaders, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
+                applyBrowserHeaders(altHeaders, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, true);
 
                 Map<String, Object> altRequestBody = new HashMap<>();
                 altRequestBody.put("lsNroRadicacion", numeroRadicacion.trim());
@@ -454,7 +386,7 @@ public class JudicialScrapingService {
                 }
                 HttpEntity<Map<String, Object>> altEntity = new HttpEntity<>(altRequestBody, altHeaders);
 
-                ResponseEntity<String> altResponse = restTemplate.exchange(
+                ResponseEntity<String> altResponse = exchangePortal("subjects",
                         altUrl,
                         HttpMethod.POST,
                         altEntity,
@@ -463,24 +395,8 @@ public class JudicialScrapingService {
 
                 if (altResponse.getStatusCode() == HttpStatus.OK && altResponse.getBody() != null) {
                     JsonNode responseJson = objectMapper.readTree(altResponse.getBody());
-                    if (responseJson.has("isSuccess") && responseJson.get("isSuccess").asBoolean()
-                            && responseJson.has("lsData") && responseJson.get("lsData").isArray()) {
-
-                        List<ProcessSubject> subjects = new ArrayList<>();
-                        for (JsonNode subjectNode : responseJson.get("lsData")) {
-                            ProcessSubject subject = new ProcessSubject();
-
-                            subject.setIdSujetoProceso(subjectNode.has("lnIdSujetoProceso") ? subjectNode.get("lnIdSujetoProceso").asLong() : null);
-                            subject.setNombreSujeto(subjectNode.has("lsNombreSujeto") ? subjectNode.get("lsNombreSujeto").asText() : null);
-                            subject.setTipoSujeto(subjectNode.has("lsTipoSujeto") ? subjectNode.get("lsTipoSujeto").asText() : null);
-                            subject.setIdentificacion(subjectNode.has("lsIdentificacion") ? subjectNode.get("lsIdentificacion").asText() : null);
-                            subject.setTipoIdentificacion(subjectNode.has("lsTipoIdentificacion") ? subjectNode.get("lsTipoIdentificacion").asText() : null);
-                            subject.setApoderado(subjectNode.has("lsApoderado") ? subjectNode.get("lsApoderado").asText() : null);
-                            subject.setTieneApoderado(subjectNode.has("lbTieneApoderado") && "S".equals(subjectNode.get("lbTieneApoderado").asText()));
-
-                            subjects.add(subject);
-                        }
-
+                    List<ProcessSubject> subjects = PortalResponseParser.parseSubjects(responseJson);
+                    if (subjects != null) {
                         return subjects;
                     }
                 }
@@ -525,11 +441,11 @@ public class JudicialScrapingService {
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
+            applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, portalCookies, false);
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
             
-            ResponseEntity<String> response = restTemplate.exchange(
-                API_BASE + "/Process/GetDocumentos",
+            ResponseEntity<String> response = exchangePortal("documents",
+                apiBase + "/Process/GetDocumentos",
                 HttpMethod.POST,
                 entity,
                 String.class
@@ -537,26 +453,8 @@ public class JudicialScrapingService {
             
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 JsonNode responseJson = objectMapper.readTree(response.getBody());
-                
-                if (responseJson.has("isSuccess") && responseJson.get("isSuccess").asBoolean() 
-                    && responseJson.has("lsData") && responseJson.get("lsData").isArray()) {
-                    
-                    List<ProcessDocument> documents = new ArrayList<>();
-                    
-                    for (JsonNode docNode : responseJson.get("lsData")) {
-                        ProcessDocument document = new ProcessDocument();
-                        
-                        document.setIdDocumento(docNode.has("lnIdDocumento") ? docNode.get("lnIdDocumento").asLong() : null);
-                        document.setNombreArchivo(docNode.has("lsNombreArchivo") ? docNode.get("lsNombreArchivo").asText() : null);
-                        document.setTipoDocumento(docNode.has("lsTipoDocumento") ? docNode.get("lsTipoDocumento").asText() : null);
-                        document.setUrlDescarga(docNode.has("lsUrlDescarga") ? docNode.get("lsUrlDescarga").asText() : null);
-                        document.setTamanoArchivo(docNode.has("lnTamanoArchivo") ? docNode.get("lnTamanoArchivo").asLong() : null);
-                        document.setExtensionArchivo(docNode.has("lsExtensionArchivo") ? docNode.get("lsExtensionArchivo").asText() : null);
-                        document.setFechaDocumento(docNode.has("ldFechaDocumento") ? docNode.get("ldFechaDocumento").asText() : null);
-                        
-                        documents.add(document);
-                    }
-                    
+                List<ProcessDocument> documents = PortalResponseParser.parseDocuments(responseJson);
+                if (documents != null) {
                     return documents;
                 }
             }
@@ -576,45 +474,7 @@ public class JudicialScrapingService {
             logger.info("Saving process data to database: {}", processData.getNumeroRadicacion());
             
             // Prepare process data for upsert
-            Map<String, Object> processRecord = new HashMap<>();
-            
-            // Portal API fields
-            processRecord.put("id_proceso", processData.getIdProceso());
-            processRecord.put("id_conexion", processData.getIdConexion());
-            processRecord.put("numero_radicacion", processData.getNumeroRadicacion());
-            
-            // Date fields
-            processRecord.put("fecha_radicacion", processData.getFechaRadicacion());
-            processRecord.put("fecha_proceso", processData.getFechaProceso());
-            processRecord.put("fecha_ultima_actuacion", processData.getFechaUltimaActuacion());
-            
-            // Court and case info
-            processRecord.put("despacho", processData.getDespacho());
-            processRecord.put("departamento", processData.getDepartamento());
-            processRecord.put("ponente", processData.getPonente());
-            processRecord.put("ubicacion_expediente", processData.getUbicacionExpediente());
-            processRecord.put("tipo_proceso", processData.getTipoProceso());
-            processRecord.put("clase_proceso", processData.getClaseProceso());
-            processRecord.put("subclase_proceso", processData.getSubclaseProceso());
-            
-            // Parties information
-            processRecord.put("demandante", processData.getDemandante());
-            processRecord.put("demandado", processData.getDemandado());
-            processRecord.put("sujetos_procesales", processData.getSujetosProcesales());
-            processRecord.put("apoderado_demandante", processData.getApoderadoDemandante());
-            processRecord.put("apoderado_demandado", processData.getApoderadoDemandado());
-            
-            // Process metadata
-            processRecord.put("cantidad_folios", processData.getCantidadFolios());
-            processRecord.put("es_privado", processData.getEsPrivado() != null ? processData.getEsPrivado() : false);
-            processRecord.put("estado", processData.getEstado() != null ? processData.getEstado() : "Activo");
-            processRecord.put("solo_activos", processData.getSoloActivos() != null ? processData.getSoloActivos() : false);
-            processRecord.put("portal_url", processData.getPortalUrl());
-            
-            // Timestamps - ALWAYS update these
-            String now = LocalDateTime.now().toString();
-            processRecord.put("updated_at", now);
-            // Only set created_at if it's a new record (Supabase will handle this)
+            Map<String, Object> processRecord = ProcessRecordMapper.toProcessRecord(processData, LocalDateTime.now().toString());
             
             JsonNode result = supabaseService.upsert("judicial_processes", processRecord, "numero_radicacion");
             
@@ -645,19 +505,35 @@ public class JudicialScrapingService {
                 }
             }
             
+            boolean relatedRowsSaved = true;
+
             // Save activities
             if (processData.getActuaciones() != null && !processData.getActuaciones().isEmpty()) {
-                saveProcessActivities(processId, processData.getActuaciones());
+                relatedRowsSaved &= saveProcessActivities(processId, processData.getActuaciones());
             }
             
             // Save subjects
             if (processData.getSujetos() != null && !processData.getSujetos().isEmpty()) {
-                saveProcessSubjects(processId, processData.getSujetos());
+                relatedRowsSaved &= saveProcessSubjects(processId, processData.getSujetos());
             }
             
             // Save documents
             if (processData.getDocumentos() != null && !processData.getDocumentos().isEmpty()) {
-                saveProcessDocuments(processId, processData.getDocumentos());
+                relatedRowsSaved &= saveProcessDocuments(processId, processData.getDocumentos());
+            }
+
+            if (!relatedRowsSaved) {
+                logger.error("Error saving process data for {}: related rows were not all saved", processData.getNumeroRadicacion());
+                return null;
+            }
+
+            // The related rows were rewritten after the upsert, so readers may have seen
+            // them half written under its updated_at; move the version (and ETag) on
+            // again now that they are complete
+            try {
+                supabaseService.update("judicial_processes", processId, Map.of("updated_at", LocalDateTime.now().toString()));
+            } catch (Exception e) {
+                logger.warn("Could not advance the version of process {} after saving its related rows: {}", processId, e.getMessage());
             }
             
             logger.info("Successfully saved process data for: {} with ID: {}", processData.getNumeroRadicacion(), processId);
@@ -675,16 +551,16 @@ public class JudicialScrapingService {
     public JsonNode fetchActivitiesRaw(String numeroRadicacion) {
         try {
             UriComponentsBuilder uriBuilder = UriComponentsBuilder
-                .fromHttpUrl(ACTIVITIES_API_URL)
+                .fromHttpUrl(activitiesApiUrl)
                 .queryParam("numero", numeroRadicacion.trim())
                 .queryParam("pagina", 1);
 
             String cookies = fetchPortalCookies(numeroRadicacion);
             HttpHeaders headers = new HttpHeaders();
-            applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, true);
+            applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, true);
             HttpEntity<String> entity = new HttpEntity<>(headers);
 
-            ResponseEntity<String> response = restTemplate.exchange(uriBuilder.toUriString(), HttpMethod.GET, entity, String.class);
+            ResponseEntity<String> response = exchangePortalHedged("activities", uriBuilder.toUriString(), entity);
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return objectMapper.readTree(response.getBody());
             }
@@ -698,7 +574,11 @@ public class JudicialScrapingService {
     }
 
     /**
-     * Fetch raw subjects JSON from the portal (returns parsed JsonNode or null)
+     * Fetch raw subjects JSON from the portal (returns parsed JsonNode or null).
+     *
+     * The portal accepts only some of the ways this endpoint can be called, so
+     * each URL is tried as POST JSON, POST form and GET. The variant that answered
+     * recently is tried first and variants that keep failing are left for last.
      */
     public JsonNode fetchSubjectsRaw(String numeroRadicacion) {
         String cookies = fetchPortalCookies(numeroRadicacion);
@@ -713,75 +593,89 @@ public class JudicialScrapingService {
             logger.debug("Failed to build JSON payload for subjects: {}", ex.getMessage());
         }
 
-        // Try the known endpoints (without :448 and with :448)
-        String[] urls = new String[] {
-            API_BASE + "/v1/Process/GetSujetosProcesales",
-            "https://consultaprocesos.ramajudicial.gov.co:448/api/v1/Process/GetSujetosProcesales"
-        };
-
-        for (String url : urls) {
-            // Variant 1: POST application/json
-            try {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, url.contains(":448"));
-                HttpEntity<String> entity = new HttpEntity<>(payloadJson, headers);
-
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                    logger.debug("fetchSubjectsRaw: successful (POST JSON) from {}", url);
-                    return objectMapper.readTree(response.getBody());
-                }
-                logger.warn("fetchSubjectsRaw (POST JSON) returned {} for {} (url={})", response.getStatusCode().value(), numeroRadicacion, url);
-            } catch (Exception e) {
-                logger.warn("fetchSubjectsRaw (POST JSON) failed for {} at {}: {}", numeroRadicacion, url, e.getMessage());
+        // The known endpoints (without :448 and with :448), each with every request variant
+        List<SubjectsAttempt> attempts = new ArrayList<>();
+        for (String url : new String[] { apiBase + "/v1/Process/GetSujetosProcesales", subjectsApiUrl }) {
+            for (SubjectsVariant variant : SubjectsVariant.values()) {
+                attempts.add(new SubjectsAttempt(url, variant));
             }
+        }
 
-            // Variant 2: POST application/x-www-form-urlencoded
+        for (SubjectsAttempt attempt : portalVariantSelector.order("subjects", attempts, SubjectsAttempt::name)) {
+            String url = attempt.url();
+            String variant = attempt.variant().label;
             try {
                 HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-                applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, url.contains(":448"));
-                String formBody = "lsNroRadicacion=" + java.net.URLEncoder.encode(numeroRadicacion.trim(), "UTF-8");
-                HttpEntity<String> entity = new HttpEntity<>(formBody, headers);
+                applyBrowserHeaders(headers, baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, url.startsWith(apiUrl));
 
-                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-                if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                    logger.debug("fetchSubjectsRaw: successful (POST form) from {}", url);
-                    return objectMapper.readTree(response.getBody());
+                ResponseEntity<String> response;
+                switch (attempt.variant()) {
+                    case POST_JSON -> {
+                        headers.setContentType(MediaType.APPLICATION_JSON);
+                        response = exchangePortal("subjects", url, HttpMethod.POST, new HttpEntity<>(payloadJson, headers), String.class);
+                    }
+                    case POST_FORM -> {
+                        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+                        String formBody = "lsNroRadicacion=" + URLEncoder.encode(numeroRadicacion.trim(), StandardCharsets.UTF_8);
+                        response = exchangePortal("subjects", url, HttpMethod.POST, new HttpEntity<>(formBody, headers), String.class);
+                    }
+                    default -> {
+                        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url)
+                            .queryParam("lsNroRadicacion", numeroRadicacion.trim());
+                        response = exchangePortal("subjects", builder.toUriString(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+                    }
                 }
-                logger.warn("fetchSubjectsRaw (POST form) returned {} for {} (url={})", response.getStatusCode().value(), numeroRadicacion, url);
-            } catch (Exception e) {
-                logger.warn("fetchSubjectsRaw (POST form) failed for {} at {}: {}", numeroRadicacion, url, e.getMessage());
-            }
 
-            // Variant 3: GET with query param
-            try {
-                UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url)
-                    .queryParam("lsNroRadicacion", numeroRadicacion.trim());
-                HttpHeaders headers = new HttpHeaders();
-                applyBrowserHeaders(headers, BASE_URL + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion, cookies, url.contains(":448"));
-                HttpEntity<String> entity = new HttpEntity<>(headers);
-
-                ResponseEntity<String> response = restTemplate.exchange(builder.toUriString(), HttpMethod.GET, entity, String.class);
                 if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                    logger.debug("fetchSubjectsRaw: successful (GET) from {}", url);
-                    return objectMapper.readTree(response.getBody());
+                    JsonNode subjects = objectMapper.readTree(response.getBody());
+                    portalVariantSelector.recordSuccess("subjects", attempt.name());
+                    logger.debug("fetchSubjectsRaw: successful ({}) from {}", variant, url);
+                    return subjects;
                 }
-                logger.warn("fetchSubjectsRaw (GET) returned {} for {} (url={})", response.getStatusCode().value(), numeroRadicacion, url);
+                portalVariantSelector.recordFailure("subjects", attempt.name());
+                logger.warn("fetchSubjectsRaw ({}) returned {} for {} (url={})", variant, response.getStatusCode().value(), numeroRadicacion, url);
             } catch (Exception e) {
-                logger.warn("fetchSubjectsRaw (GET) failed for {} at {}: {}", numeroRadicacion, url, e.getMessage());
+                portalVariantSelector.recordFailure("subjects", attempt.name());
+                logger.warn("fetchSubjectsRaw ({}) failed for {} at {}: {}", variant, numeroRadicacion, url, e.getMessage());
             }
         }
 
         logger.error("fetchSubjectsRaw error for {}: all request variants failed (received 405/other).", numeroRadicacion);
         return null;
     }
+
+    /** Ways of calling GetSujetosProcesales, in the order they are tried without history */
+    private enum SubjectsVariant {
+        POST_JSON("POST JSON"),
+        POST_FORM("POST form"),
+        GET("GET");
+
+        private final String label;
+
+        SubjectsVariant(String label) {
+            this.label = label;
+        }
+    }
+
+    private record SubjectsAttempt(String url, SubjectsVariant variant) {
+        String name() {
+            return variant + " " + url;
+        }
+    }
     
     /**
      * Check if process exists in database
      */
     public String processExists(String numeroRadicacion) {
+        ProcessVersion version = findProcessVersion(numeroRadicacion);
+        return version != null ? version.processId() : null;
+    }
+    
+    /**
+     * Look up the stored id and last modification time of a process, or null when
+     * it is not in the database
+     */
+    public ProcessVersion findProcessVersion(String numeroRadicacion) {
         try {
             Map<String, Object> filters = new HashMap<>();
             filters.put("numero_radicacion", numeroRadicacion);
@@ -792,103 +686,118 @@ public class JudicialScrapingService {
                 return null;
             }
             
-            return data.get(0).get("id").asText();
+            JsonNode row = data.get(0);
+            return new ProcessVersion(row.get("id").asText(), parseTimestamp(row.path("updated_at").asText(null)));
         } catch (Exception error) {
             logger.error("Error checking if process exists: {}", error.getMessage());
             return null;
         }
     }
     
+    private Instant parseTimestamp(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).toInstant();
+        } catch (DateTimeParseException e) {
+            try {
+                // timestamp without time zone columns come back without an offset
+                return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * Stored identity of a process; {@code updatedAt} changes every time it is saved.
+     */
+    public record ProcessVersion(String processId, Instant updatedAt) {
+        
+        /**
+         * Validator shared by every representation of this version of the process
+         */
+        public String etag() {
+            long millis = updatedAt != null ? updatedAt.toEpochMilli() : 0L;
+            return "W/\"" + processId + "-" + Long.toHexString(millis) + "\"";
+        }
+    }
+    
     // Helper methods for saving related data
     
-    private void saveProcessActivities(String processId, List<ProcessActivity> activities) {
+    private boolean saveProcessActivities(String processId, List<ProcessActivity> activities) {
         try {
             logger.info("Saving {} activities for process {}", activities.size(), processId);
             
             // First, delete existing activities for this process to avoid duplicates
             Map<String, Object> deleteConditions = new HashMap<>();
             deleteConditions.put("process_id", processId);
-            supabaseService.deleteWhere("process_activities", deleteConditions);
+            if (!supabaseService.deleteWhere("process_activities", deleteConditions)) {
+                throw new RuntimeException("Could not delete the previous rows");
+            }
             
             for (ProcessActivity activity : activities) {
-                Map<String, Object> activityRecord = new HashMap<>();
-                activityRecord.put("process_id", processId);
-                activityRecord.put("id_actuacion", activity.getIdActuacion());
-                activityRecord.put("cons_actuacion", activity.getConsActuacion());
-                activityRecord.put("fecha_actuacion", activity.getFechaActuacion());
-                activityRecord.put("actuacion", activity.getActuacion());
-                activityRecord.put("anotacion", activity.getAnotacion());
-                activityRecord.put("fecha_inicio_termino", activity.getFechaInicioTermino());
-                activityRecord.put("fecha_finaliza_termino", activity.getFechaFinalizaTermino());
-                activityRecord.put("codigo_regla", activity.getCodigoRegla());
-                activityRecord.put("con_documentos", activity.getConDocumentos());
-                activityRecord.put("cant_folios", activity.getCantFolios());
+                Map<String, Object> activityRecord = ProcessRecordMapper.toActivityRecord(processId, activity);
                 
                 supabaseService.insert("process_activities", activityRecord);
             }
             
             logger.info("Successfully saved {} activities", activities.size());
+            return true;
         } catch (Exception error) {
             logger.error("Error saving activities: {}", error.getMessage());
+            return false;
         }
     }
     
-    private void saveProcessSubjects(String processId, List<ProcessSubject> subjects) {
+    private boolean saveProcessSubjects(String processId, List<ProcessSubject> subjects) {
         try {
             logger.info("Saving {} subjects for process {}", subjects.size(), processId);
             
             // First, delete existing subjects for this process to avoid duplicates
             Map<String, Object> deleteConditions = new HashMap<>();
             deleteConditions.put("process_id", processId);
-            supabaseService.deleteWhere("process_subjects", deleteConditions);
+            if (!supabaseService.deleteWhere("process_subjects", deleteConditions)) {
+                throw new RuntimeException("Could not delete the previous rows");
+            }
             
             for (ProcessSubject subject : subjects) {
-                Map<String, Object> subjectRecord = new HashMap<>();
-                subjectRecord.put("process_id", processId);
-                subjectRecord.put("id_sujeto_proceso", subject.getIdSujetoProceso());
-                subjectRecord.put("nombre_sujeto", subject.getNombreSujeto());
-                subjectRecord.put("tipo_sujeto", subject.getTipoSujeto());
-                subjectRecord.put("identificacion", subject.getIdentificacion());
-                subjectRecord.put("tipo_identificacion", subject.getTipoIdentificacion());
-                subjectRecord.put("apoderado", subject.getApoderado());
-                subjectRecord.put("tiene_apoderado", subject.getTieneApoderado());
+                Map<String, Object> subjectRecord = ProcessRecordMapper.toSubjectRecord(processId, subject);
                 
                 supabaseService.insert("process_subjects", subjectRecord);
             }
             
             logger.info("Successfully saved {} subjects", subjects.size());
+            return true;
         } catch (Exception error) {
             logger.error("Error saving subjects: {}", error.getMessage());
+            return false;
         }
     }
     
-    private void saveProcessDocuments(String processId, List<ProcessDocument> documents) {
+    private boolean saveProcessDocuments(String processId, List<ProcessDocument> documents) {
         try {
             logger.info("Saving {} documents for process {}", documents.size(), processId);
             
             // First, delete existing documents for this process to avoid duplicates
             Map<String, Object> deleteConditions = new HashMap<>();
             deleteConditions.put("process_id", processId);
-            supabaseService.deleteWhere("process_documents", deleteConditions);
+            if (!supabaseService.deleteWhere("process_documents", deleteConditions)) {
+                throw new RuntimeException("Could not delete the previous rows");
+            }
             
             for (ProcessDocument document : documents) {
-                Map<String, Object> documentRecord = new HashMap<>();
-                documentRecord.put("process_id", processId);
-                documentRecord.put("actuacion_id", null); // Could be linked to specific activity later
-                documentRecord.put("id_documento", document.getIdDocumento());
-                documentRecord.put("nombre_archivo", document.getNombreArchivo());
-                documentRecord.put("tipo_documento", document.getTipoDocumento());
-                documentRecord.put("url_descarga", document.getUrlDescarga());
-                documentRecord.put("tamano_archivo", document.getTamanoArchivo());
-                documentRecord.put("extension_archivo", document.getExtensionArchivo());
-                documentRecord.put("fecha_documento", document.getFechaDocumento());
+                Map<String, Object> documentRecord = ProcessRecordMapper.toDocumentRecord(processId, document);
                 
                 supabaseService.insert("process_documents", documentRecord);
             }
             
             logger.info("Successfully saved {} documents", documents.size());
+            return true;
         } catch (Exception error) {
             logger.error("Error saving documents: {}", error.getMessage());
+            return false;
         }
     }
 }
\ No newline at end of file
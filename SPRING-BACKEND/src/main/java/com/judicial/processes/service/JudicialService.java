@@ -2,7 +2,9 @@ package com.judicial.processes.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,45 +20,61 @@ import com.judicial.processes.dto.ProcessData;
 import com.judicial.processes.dto.ProcessDocument;
 import com.judicial.processes.dto.ProcessSubject;
 
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuple4;
+
 @Service
 public class JudicialService {
     
     private static final Logger logger = LoggerFactory.getLogger(JudicialService.class);
+
+    // Related rows are listed in the portal's order: actuaciones newest first, and
+    // sujetos and documentos in the order the scraper inserted them
+    private static final String ACTIVITY_ORDER = "fecha_actuacion.desc,cons_actuacion.desc";
+    private static final String SUBJECT_ORDER = "created_at.asc";
+    private static final String DOCUMENT_ORDER = "created_at.asc";
     
     @Autowired
     private SupabaseService supabaseService;
     
+    @Autowired
+    private ReactiveSupabaseService reactiveSupabaseService;
+    
     @Autowired
     private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConsultationHistoryWriter consultationHistoryWriter;
     
     /**
-     * Get process from database with all related data
+     * Get process from database with all related data. The related rows only need
+     * the id, so the four queries are issued concurrently. Returns null when the
+     * process or any of its related rows could not be loaded, rather than a
+     * process with missing rows.
      */
     public ProcessData getProcessFromDatabase(String processId) {
         try {
-            // Get main process info
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("id", processId);
-            
-            JsonNode processes = supabaseService.select("judicial_processes", filters);
-            
+            Map<String, Object> processFilter = Map.of("id", processId);
+            Map<String, Object> childFilter = Map.of("process_id", processId);
+
+            Tuple4<JsonNode, JsonNode, JsonNode, JsonNode> rows = Mono.zip(
+                reactiveSupabaseService.select("judicial_processes", processFilter),
+                reactiveSupabaseService.selectAll("process_activities", childFilter, ACTIVITY_ORDER),
+                reactiveSupabaseService.selectAll("process_subjects", childFilter, SUBJECT_ORDER),
+                reactiveSupabaseService.selectAll("process_documents", childFilter, DOCUMENT_ORDER)
+            ).block();
+
+            JsonNode processes = rows.getT1();
             if (processes == null || !processes.isArray() || processes.size() == 0) {
                 return null;
             }
             
-            JsonNode processNode = processes.get(0);
-            
             // Convert JsonNode to ProcessData
-            ProcessData processData = convertJsonToProcessData(processNode);
-            
-            // Get related data
-            List<ProcessActivity> activities = getProcessActivities(processId);
-            List<ProcessSubject> subjects = getProcessSubjects(processId);
-            List<ProcessDocument> documents = getProcessDocuments(processId);
-            
-            processData.setActuaciones(activities);
-            processData.setSujetos(subjects);
-            processData.setDocumentos(documents);
+            ProcessData processData = convertJsonToProcessData(processes.get(0));
+            processData.setActuaciones(toActivities(rows.getT2()));
+            processData.setSujetos(toSubjects(rows.getT3()));
+            processData.setDocumentos(toDocuments(rows.getT4()));
             
             return processData;
         } catch (Exception error) {
@@ -66,83 +84,115 @@ public class JudicialService {
     }
     
     /**
-     * Get process activities from database
+     * Load several processes and their related rows with one query per table,
+     * keyed by número de radicación. Radicaciones not stored yet are absent.
+     * Returns null when any of the queries failed, so a failed read is not taken
+     * for processes that are not stored.
+     */
+    public Map<String, StoredProcess> getProcessesFromDatabase(Collection<String> numerosRadicacion) {
+        Map<String, StoredProcess> result = new LinkedHashMap<>();
+        if (numerosRadicacion == null || numerosRadicacion.isEmpty()) {
+            return result;
+        }
+
+        try {
+            JsonNode processes = supabaseService.selectIn("judicial_processes", "numero_radicacion", numerosRadicacion, null);
+            if (processes == null || !processes.isArray() || processes.size() == 0) {
+                return result;
+            }
+
+            Map<String, ProcessData> byId = new LinkedHashMap<>();
+            for (JsonNode processNode : processes) {
+                String processId = processNode.get("id").asText();
+                ProcessData processData = convertJsonToProcessData(processNode);
+                processData.setActuaciones(new ArrayList<>());
+                processData.setSujetos(new ArrayList<>());
+                processData.setDocumentos(new ArrayList<>());
+                byId.put(processId, processData);
+                result.put(processNode.get("numero_radicacion").asText(), new StoredProcess(processId, processData));
+            }
+
+            // The three child tables are independent of each other
+            Tuple3<JsonNode, JsonNode, JsonNode> children = Mono.zip(
+                reactiveSupabaseService.selectIn("process_activities", "process_id", byId.keySet(), ACTIVITY_ORDER),
+                reactiveSupabaseService.selectIn("process_subjects", "process_id", byId.keySet(), SUBJECT_ORDER),
+                reactiveSupabaseService.selectIn("process_documents", "process_id", byId.keySet(), DOCUMENT_ORDER)
+            ).block();
+
+            for (JsonNode actNode : children.getT1()) {
+                ProcessData owner = byId.get(actNode.path("process_id").asText());
+                if (owner != null) {
+                    owner.getActuaciones().add(convertJsonToProcessActivity(actNode));
+                }
+            }
+            for (JsonNode subjectNode : children.getT2()) {
+                ProcessData owner = byId.get(subjectNode.path("process_id").asText());
+                if (owner != null) {
+                    owner.getSujetos().add(convertJsonToProcessSubject(subjectNode));
+                }
+            }
+            for (JsonNode docNode : children.getT3()) {
+                ProcessData owner = byId.get(docNode.path("process_id").asText());
+                if (owner != null) {
+                    owner.getDocumentos().add(convertJsonToProcessDocument(docNode));
+                }
+            }
+
+            return result;
+        } catch (Exception error) {
+            logger.error("Error getting processes from database: {}", error.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get process activities from database, or null when they could not be loaded
      */
     public List<ProcessActivity> getProcessActivities(String processId) {
         try {
             Map<String, Object> filters = new HashMap<>();
             filters.put("process_id", processId);
             
-            JsonNode activities = supabaseService.select("process_activities", filters);
-            
-            if (activities == null || !activities.isArray()) {
-                return new ArrayList<>();
-            }
+            JsonNode activities = reactiveSupabaseService.selectAll("process_activities", filters, ACTIVITY_ORDER).block();
             
-            List<ProcessActivity> result = new ArrayList<>();
-            for (JsonNode actNode : activities) {
-                ProcessActivity activity = convertJsonToProcessActivity(actNode);
-                result.add(activity);
-            }
-            
-            return result;
+            return toActivities(activities);
         } catch (Exception error) {
             logger.error("Error getting process activities: {}", error.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
     
     /**
-     * Get process subjects from database
+     * Get process subjects from database, or null when they could not be loaded
      */
     public List<ProcessSubject> getProcessSubjects(String processId) {
         try {
             Map<String, Object> filters = new HashMap<>();
             filters.put("process_id", processId);
             
-            JsonNode subjects = supabaseService.select("process_subjects", filters);
-            
-            if (subjects == null || !subjects.isArray()) {
-                return new ArrayList<>();
-            }
-            
-            List<ProcessSubject> result = new ArrayList<>();
-            for (JsonNode subjectNode : subjects) {
-                ProcessSubject subject = convertJsonToProcessSubject(subjectNode);
-                result.add(subject);
-            }
+            JsonNode subjects = reactiveSupabaseService.selectAll("process_subjects", filters, SUBJECT_ORDER).block();
             
-            return result;
+            return toSubjects(subjects);
         } catch (Exception error) {
             logger.error("Error getting process subjects: {}", error.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
     
     /**
-     * Get process documents from database
+     * Get process documents from database, or null when they could not be loaded
      */
     public List<ProcessDocument> getProcessDocuments(String processId) {
         try {
             Map<String, Object> filters = new HashMap<>();
             filters.put("process_id", processId);
             
-            JsonNode documents = supabaseService.select("process_documents", filters);
-            
-            if (documents == null || !documents.isArray()) {
-                return new ArrayList<>();
-            }
-            
-            List<ProcessDocument> result = new ArrayList<>();
-            for (JsonNode docNode : documents) {
-                ProcessDocument document = convertJsonToProcessDocument(docNode);
-                result.add(document);
-            }
+            JsonNode documents = reactiveSupabaseService.selectAll("process_documents", filters, DOCUMENT_ORDER).block();
             
-            return result;
+            return toDocuments(documents);
         } catch (Exception error) {
             logger.error("Error getting process documents: {}", error.getMessage());
-            return new ArrayList<>();
+            return null;
         }
     }
     
@@ -374,21 +424,23 @@ public class JudicialService {
             consultationRecord.put("error_message", errorMessage);
             consultationRecord.put("created_at", LocalDateTime.now().toString());
             
-            logger.info("Attempting to log consultation - userId: {}, processId: {}, type: {}, status: {}", 
+            logger.debug("Queueing consultation log - userId: {}, processId: {}, type: {}, status: {}", 
                 userId, processId, type, status);
             
-            JsonNode result = supabaseService.insert("consultation_history", consultationRecord);
-            
-            if (result != null) {
-                logger.info("Successfully logged consultation to database");
-            } else {
-                logger.error("Failed to log consultation - insert returned null");
+            if (!consultationHistoryWriter.enqueue(consultationRecord)) {
+                logger.warn("Consultation history queue full, dropping log for process {}", processId);
             }
         } catch (Exception error) {
             logger.error("Error logging consultation - Exception: {}", error.getMessage(), error);
         }
     }
     
+    /**
+     * A process read from the database together with its row id.
+     */
+    public record StoredProcess(String processId, ProcessData data) {
+    }
+
     /**
      * Convert ProcessData to Map for JSON response
      */
@@ -430,6 +482,36 @@ public class JudicialService {
     
     // Helper methods to convert JsonNode to DTOs
     
+    private List<ProcessActivity> toActivities(JsonNode rows) {
+        List<ProcessActivity> result = new ArrayList<>();
+        if (rows != null && rows.isArray()) {
+            for (JsonNode actNode : rows) {
+                result.add(convertJsonToProcessActivity(actNode));
+            }
+        }
+        return result;
+    }
+
+    private List<ProcessSubject> toSubjects(JsonNode rows) {
+        List<ProcessSubject> result = new ArrayList<>();
+        if (rows != null && rows.isArray()) {
+            for (JsonNode subjectNode : rows) {
+                result.add(convertJsonToProcessSubject(subjectNode));
+            }
+        }
+        return result;
+    }
+
+    private List<ProcessDocument> toDocuments(JsonNode rows) {
+        List<ProcessDocument> result = new ArrayList<>();
+        if (rows != null && rows.isArray()) {
+            for (JsonNode docNode : rows) {
+                result.add(convertJsonToProcessDocument(docNode));
+            }
+        }
+        return result;
+    }
+
     private ProcessData convertJsonToProcessData(JsonNode node) {
         ProcessData processData = new ProcessData();
         
@@ -0,0 +1,74 @@
+package com.judicial.processes.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.judicial.processes.cache.TtlCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Radicaciones the portal recently answered with no procesos, so typos and
+ * invalid numbers can be answered with a 404 without another round trip to the
+ * portal and Supabase. Only an explicit empty answer is remembered, never a
+ * failed call, and the TTL is short so a newly registered process shows up
+ * soon.
+ *
+ * Keys are the trimmed radicación, the same string the scraper sends to the
+ * portal; other spellings of the number are separate entries.
+ */
+@Service
+public class MissingProcessCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${missing-process-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${missing-process-cache.max-size:5000}")
+    private int maxSize;
+
+    @Value("${missing-process-cache.ttl.millis:300000}")
+    private long ttlMillis;
+
+    private TtlCache<String, Boolean> missing;
+
+    @PostConstruct
+    public void init() {
+        missing = new TtlCache<>(maxSize, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * Whether the portal recently reported that {@code numeroRadicacion} does not exist.
+     */
+    public boolean isMissing(String numeroRadicacion) {
+        if (!enabled || numeroRadicacion == null) {
+            return false;
+        }
+
+        boolean hit = missing.getIfPresent(key(numeroRadicacion)) != null;
+        meterRegistry.counter("process.missing.cache", "result", hit ? "hit" : "miss").increment();
+        return hit;
+    }
+
+    public void markMissing(String numeroRadicacion) {
+        if (enabled && numeroRadicacion != null) {
+            missing.put(key(numeroRadicacion), Boolean.TRUE);
+        }
+    }
+
+    public void forget(String numeroRadicacion) {
+        if (numeroRadicacion != null) {
+            missing.invalidate(key(numeroRadicacion));
+        }
+    }
+
+    private String key(String numeroRadicacion) {
+        return numeroRadicacion.trim();
+    }
+}
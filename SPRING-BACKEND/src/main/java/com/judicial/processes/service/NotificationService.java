@@ -1,21 +1,64 @@
 package com.judicial.processes.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.judicial.processes.cache.TtlCache;
 import com.judicial.processes.entity.NotificationRecord;
 import com.judicial.processes.repository.NotificationRepository;
 
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class NotificationService {
 
+    private static final Pattern UUID_PATTERN = Pattern.compile("^[0-9a-fA-F-]{36}$");
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Value("${notifications.unread-count.reconcile.millis:300000}")
+    private long unreadCountReconcileMillis;
+
+    @Value("${notifications.unread-count.max-users:10000}")
+    private int unreadCountMaxUsers;
+
+    /**
+     * Unread counters kept in step with writes made through this service; the TTL
+     * forces a fresh count from the database now and then to absorb any drift.
+     */
+    private TtlCache<String, AtomicLong> unreadCounts;
+
+    @PostConstruct
+    public void init() {
+        unreadCounts = new TtlCache<>(unreadCountMaxUsers, Duration.ofMillis(unreadCountReconcileMillis));
+    }
+
     public NotificationRecord createNotification(NotificationRecord notificationRecord) {
-        return notificationRepository.save(notificationRecord);
+        NotificationRecord saved = notificationRepository.save(notificationRecord);
+        adjustUnreadCount(saved);
+        notificationStreamService.publish(saved);
+        return saved;
+    }
+
+    public List<NotificationRecord> createNotifications(List<NotificationRecord> notificationRecords) {
+        List<NotificationRecord> saved = notificationRepository.saveAll(notificationRecords);
+        saved.forEach(this::adjustUnreadCount);
+        notificationStreamService.publishAll(saved);
+        return saved;
     }
 
     public List<NotificationRecord> getUnreadNotifications(String userId, int limit) {
@@ -26,11 +69,102 @@ public class NotificationService {
         return notificationRepository.findByUser(userId, limit, offset);
     }
 
-    public void markAsRead(String notificationId) {
-        notificationRepository.markAsRead(notificationId);
+    /**
+     * Page through the user's notifications with an opaque cursor taken from the
+     * previous page; {@code null} starts from the newest notification.
+     */
+    public List<NotificationRecord> getNotificationsPage(String userId, int limit, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return notificationRepository.findByUserBefore(userId, limit, null, null);
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        int separator = decoded.lastIndexOf('|');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        String id = decoded.substring(separator + 1);
+        if (!UUID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        try {
+            OffsetDateTime createdAt = OffsetDateTime.parse(decoded.substring(0, separator));
+            return notificationRepository.findByUserBefore(userId, limit, createdAt, id);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Cursor for the page after {@code page}, or {@code null} when it was the last one.
+     */
+    public String nextCursor(List<NotificationRecord> page, int limit) {
+        if (page.isEmpty() || page.size() < limit) {
+            return null;
+        }
+
+        NotificationRecord last = page.get(page.size() - 1);
+        if (last.getCreatedAt() == null || last.getId() == null) {
+            return null;
+        }
+
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getUnreadCount(String userId) {
+        AtomicLong counter = unreadCounts.get(userId, id -> new AtomicLong(notificationRepository.countUnreadByUser(id)));
+        return Math.max(0, counter.get());
+    }
+
+    /**
+     * Mark a notification of the user as read and return the remaining unread count.
+     */
+    public long markAsRead(String userId, String notificationId) {
+        int updated = notificationRepository.markAsRead(userId, notificationId);
+
+        AtomicLong counter = unreadCounts.getIfPresent(userId);
+        if (counter != null && updated > 0) {
+            counter.addAndGet(-updated);
+        }
+        return getUnreadCount(userId);
+    }
+
+    /**
+     * Mark a batch of the user's notifications as read in one update and return the
+     * remaining unread count.
+     */
+    public long markAsRead(String userId, List<String> notificationIds) {
+        int updated = notificationRepository.markAsRead(userId, notificationIds.stream().distinct().toList());
+
+        AtomicLong counter = unreadCounts.getIfPresent(userId);
+        if (counter != null && updated > 0) {
+            counter.addAndGet(-updated);
+        }
+        return getUnreadCount(userId);
     }
 
     public void markAllAsRead(String userId) {
         notificationRepository.markAllAsRead(userId);
+        unreadCounts.put(userId, new AtomicLong());
+    }
+
+    private void adjustUnreadCount(NotificationRecord notification) {
+        if (notification == null || notification.getUserId() == null || notification.isRead()) {
+            return;
+        }
+
+        AtomicLong counter = unreadCounts.getIfPresent(notification.getUserId());
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
     }
 }
@@ -0,0 +1,223 @@
+package com.judicial.processes.service;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.judicial.processes.entity.NotificationRecord;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of new notifications to connected SSE clients. Each
+ * connection has a small bounded buffer drained on a dedicated pool, so a slow
+ * client only loses its own oldest events and never blocks the publisher.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    private static final String NOTIFICATION_EVENT = "notification";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notifications.stream.timeout.millis:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${notifications.stream.heartbeat.millis:25000}")
+    private long heartbeatMillis;
+
+    @Value("${notifications.stream.buffer-size:50}")
+    private int bufferSize;
+
+    @Value("${notifications.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notifications.stream.workers:2}")
+    private int workerCount;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("notifications.stream.connections", connectionCount, AtomicInteger::get)
+            .description("Open notification SSE connections")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+        subscribers.clear();
+        executor.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+
+        Set<Subscriber> userSubscribers = subscribers.computeIfAbsent(userId, key -> new CopyOnWriteArraySet<>());
+        userSubscribers.add(subscriber);
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Keep the newest connections when a user opens too many tabs
+        while (userSubscribers.size() > maxConnectionsPerUser) {
+            Subscriber oldest = userSubscribers.iterator().next();
+            oldest.close();
+            remove(oldest);
+        }
+
+        subscriber.enqueue(SseEmitter.event().name("ready").data("connected"));
+        logger.debug("User {} subscribed to notification stream", userId);
+        return emitter;
+    }
+
+    public void publish(NotificationRecord notification) {
+        if (notification == null || notification.getUserId() == null) {
+            return;
+        }
+
+        Set<Subscriber> userSubscribers = subscribers.get(notification.getUserId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+
+        // Event builders keep state once sent, so each connection gets its own
+        userSubscribers.forEach(subscriber -> subscriber.enqueue(buildNotificationEvent(notification)));
+    }
+
+    public void publishAll(List<NotificationRecord> notifications) {
+        if (notifications != null) {
+            notifications.forEach(this::publish);
+        }
+    }
+
+    private SseEmitter.SseEventBuilder buildNotificationEvent(NotificationRecord notification) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(NOTIFICATION_EVENT);
+        if (notification.getId() != null) {
+            event.id(notification.getId());
+        }
+        return event.data(notification);
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(userSubscribers ->
+            userSubscribers.forEach(subscriber -> subscriber.enqueue(SseEmitter.event().comment("keepalive"))));
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> userSubscribers = subscribers.get(subscriber.userId);
+        if (userSubscribers != null && userSubscribers.remove(subscriber)) {
+            connectionCount.decrementAndGet();
+            if (userSubscribers.isEmpty()) {
+                subscribers.remove(subscriber.userId, userSubscribers);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> buffer = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger buffered = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+
+            buffer.addLast(event);
+            if (buffered.incrementAndGet() > bufferSize && buffer.pollFirst() != null) {
+                buffered.decrementAndGet();
+                meterRegistry.counter("notifications.stream.dropped").increment();
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (Exception e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = buffer.pollFirst()) != null) {
+                    buffered.decrementAndGet();
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Notification stream for user {} closed: {}", userId, e.getMessage());
+                close();
+                remove(this);
+            } finally {
+                draining.set(false);
+            }
+
+            // An event may have arrived after the loop finished but before the flag was cleared
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            buffer.clear();
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                // already completed
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.judicial.processes.service;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Request headers that make calls to the Rama Judicial portal look like the
+ * browser frontend, shared by the blocking and the reactive portal clients.
+ */
+public final class PortalBrowserHeaders {
+
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private PortalBrowserHeaders() {
+    }
+
+    /**
+     * Headers of an API call made by the portal's frontend. {@code host} is only
+     * set when calling the explicit-port API, whose Host must include the port.
+     */
+    public static void applyApiHeaders(HttpHeaders headers, String origin, String referer, String cookies, String host) {
+        if (headers == null) return;
+        headers.set("User-Agent", USER_AGENT);
+        headers.set("Accept", "application/json, text/plain, */*");
+        headers.set("Accept-Language", "es-ES,es;q=0.9,en;q=0.8");
+        if (referer != null) headers.set("Referer", referer);
+        headers.set("Origin", origin);
+        headers.set("Connection", "keep-alive");
+        headers.set("Sec-Fetch-Dest", "empty");
+        headers.set("Sec-Fetch-Mode", "cors");
+        headers.set("Sec-Fetch-Site", "same-site");
+        headers.set("X-Requested-With", "XMLHttpRequest");
+        headers.set("Accept-Encoding", "gzip, deflate, br");
+
+        // Client hints (may help bypass checks)
+        headers.set("Sec-CH-UA", "\"Chromium\";v=\"120\", \"Google Chrome\";v=\"120\", \"Not:A-Brand\";v=\"99\"");
+        headers.set("Sec-CH-UA-Mobile", "?0");
+        headers.set("Sec-CH-UA-Platform", "\"Windows\"");
+
+        if (cookies != null) headers.set("Cookie", cookies);
+
+        if (host != null) headers.set("Host", host);
+    }
+
+    /**
+     * Headers of the initial page load used to collect the portal's cookies.
+     */
+    public static void applyPageHeaders(HttpHeaders headers, String referer) {
+        headers.set("User-Agent", USER_AGENT);
+        headers.set("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        headers.set("Accept-Language", "es-ES,es;q=0.9");
+        headers.set("Referer", referer);
+    }
+
+    /**
+     * Cookie header value replaying the name=value part of every Set-Cookie, or
+     * null when the response set none.
+     */
+    public static String cookieHeader(List<String> setCookies) {
+        if (setCookies == null || setCookies.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder cookieBuilder = new StringBuilder();
+        for (String c : setCookies) {
+            int idx = c.indexOf(';');
+            String part = idx > 0 ? c.substring(0, idx) : c;
+            if (cookieBuilder.length() > 0) cookieBuilder.append("; ");
+            cookieBuilder.append(part);
+        }
+        return cookieBuilder.toString();
+    }
+}
@@ -0,0 +1,217 @@
+package com.judicial.processes.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.judicial.processes.config.BlockingIoExecutors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hedges idempotent portal GETs: when the first attempt has not answered within
+ * the endpoint's recent p95 latency (from {@code judicial.portal.requests}), a
+ * second attempt is sent and whichever succeeds first is used. Hedges draw from a
+ * budget that grows by {@code budget-percent} of a request per call, so they add
+ * at most that share of extra load to the portal.
+ *
+ * The losing attempt cannot be aborted mid-read by the blocking client; it is
+ * left to finish in the background and its response is discarded. Attempts run
+ * on a pool of at most {@code max-threads} workers; when it is full, calls run on
+ * the caller's thread without a hedge, so load cannot grow the thread count.
+ */
+@Component
+public class PortalRequestHedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortalRequestHedger.class);
+
+    /** Budget is kept in thousandths of a hedge so fractional deposits add up */
+    private static final long TOKEN = 1000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BlockingIoExecutors blockingIoExecutors;
+
+    @Value("${portal.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${portal.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${portal.hedging.max-burst:20}")
+    private int maxBurst;
+
+    @Value("${portal.hedging.min-samples:50}")
+    private long minSamples;
+
+    @Value("${portal.hedging.default-delay.millis:2000}")
+    private long defaultDelayMillis;
+
+    @Value("${portal.hedging.min-delay.millis:100}")
+    private long minDelayMillis;
+
+    @Value("${portal.hedging.max-threads:64}")
+    private int maxThreads;
+
+    private final AtomicLong budget = new AtomicLong();
+
+    private ExecutorService executor;
+    private long depositPerRequest;
+    private long maxBudget;
+
+    @PostConstruct
+    public void start() {
+        depositPerRequest = Math.round(TOKEN * budgetPercent / 100.0);
+        maxBudget = maxBurst * TOKEN;
+        if (enabled) {
+            executor = blockingIoExecutors.newBoundedExecutor("portal-hedge", maxThreads);
+            logger.info("Portal request hedging enabled ({}% budget)", budgetPercent);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Run {@code attempt}, hedging it with a second identical attempt if it is
+     * slower than the endpoint's p95. {@code attempt} must be idempotent. Failures
+     * of the attempt are rethrown as they were, wrapped in a RuntimeException
+     * when checked.
+     */
+    public <T> T execute(String endpoint, Callable<T> attempt) {
+        if (!enabled) {
+            return callDirectly(attempt);
+        }
+
+        deposit();
+        CompletionService<T> attempts = new ExecutorCompletionService<>(executor);
+        Future<T> primary;
+        try {
+            primary = attempts.submit(attempt);
+        } catch (RejectedExecutionException e) {
+            count(endpoint, "no_capacity");
+            return callDirectly(attempt);
+        }
+
+        try {
+            Future<T> completed = attempts.poll(hedgeDelayMillis(endpoint), TimeUnit.MILLISECONDS);
+            if (completed != null) {
+                return unwrap(completed);
+            }
+
+            if (!withdraw()) {
+                count(endpoint, "budget_exhausted");
+                return unwrap(primary);
+            }
+
+            Future<T> hedge;
+            try {
+                hedge = attempts.submit(attempt);
+            } catch (RejectedExecutionException e) {
+                // Give the token back, the hedge was never sent
+                budget.addAndGet(TOKEN);
+                count(endpoint, "no_capacity");
+                return unwrap(primary);
+            }
+
+            count(endpoint, "sent");
+            Future<T> first = attempts.take();
+            try {
+                T result = first.get();
+                count(endpoint, first == hedge ? "hedge_won" : "primary_won");
+                (first == hedge ? primary : hedge).cancel(true);
+                return result;
+            } catch (ExecutionException e) {
+                // One attempt failed; the other one decides the outcome
+                return unwrap(attempts.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new RuntimeException("Interrupted while waiting for the portal", e);
+        }
+    }
+
+    /**
+     * Recent p95 of successful calls to the endpoint, or the default delay until
+     * enough calls have been seen.
+     */
+    private long hedgeDelayMillis(String endpoint) {
+        Timer timer = meterRegistry.find("judicial.portal.requests")
+            .tags("endpoint", endpoint, "outcome", "success")
+            .timer();
+        if (timer == null || timer.count() < minSamples) {
+            return defaultDelayMillis;
+        }
+
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == 0.95) {
+                return Math.max(minDelayMillis, (long) percentile.value(TimeUnit.MILLISECONDS));
+            }
+        }
+        return defaultDelayMillis;
+    }
+
+    private void deposit() {
+        budget.accumulateAndGet(depositPerRequest, (current, added) -> Math.min(maxBudget, current + added));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private void count(String endpoint, String result) {
+        meterRegistry.counter("judicial.portal.hedges", "endpoint", endpoint, "result", result).increment();
+    }
+
+    private <T> T unwrap(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private <T> T callDirectly(Callable<T> attempt) {
+        try {
+            return attempt.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+}
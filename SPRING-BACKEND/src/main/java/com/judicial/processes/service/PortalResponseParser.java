@@ -0,0 +1,196 @@
+package com.judicial.processes.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.judicial.processes.dto.ProcessActivity;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.dto.ProcessDocument;
+import com.judicial.processes.dto.ProcessSubject;
+
+/**
+ * Maps the JSON returned by the Rama Judicial portal to our DTOs. Kept free of
+ * I/O and Spring so the hot parsing paths can be exercised on their own.
+ */
+public final class PortalResponseParser {
+
+    private static final Pattern DEMANDANTE_PATTERN = Pattern.compile("Demandante:\\s*([^|]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DEMANDADO_PATTERN = Pattern.compile("Demandado:\\s*([^|]+)", Pattern.CASE_INSENSITIVE);
+
+    private static final String NOT_AVAILABLE = "NO DISPONIBLE";
+
+    private PortalResponseParser() {
+    }
+
+    /**
+     * Basic information of the first proceso in a NumeroRadicacion response, or
+     * null when the portal returned no procesos.
+     */
+    public static ProcessData parseBasicInfo(JsonNode responseJson, String numeroRadicacion, String portalUrl) {
+        if (!responseJson.has("procesos") || !responseJson.get("procesos").isArray()
+            || responseJson.get("procesos").size() == 0) {
+            return null;
+        }
+
+        JsonNode proceso = responseJson.get("procesos").get(0);
+
+        // Extract demandante and demandado from sujetosProcesales field
+        String demandante = NOT_AVAILABLE;
+        String demandado = NOT_AVAILABLE;
+
+        if (proceso.has("sujetosProcesales") && !proceso.get("sujetosProcesales").isNull()) {
+            String sujetos = proceso.get("sujetosProcesales").asText();
+            demandante = extractDemandante(sujetos);
+            demandado = extractDemandado(sujetos);
+        }
+
+        ProcessData processData = new ProcessData();
+
+        // Portal API fields
+        processData.setIdProceso(proceso.has("idProceso") ? proceso.get("idProceso").asLong() : null);
+        processData.setIdConexion(proceso.has("idConexion") ? proceso.get("idConexion").asLong() : null);
+        processData.setNumeroRadicacion(proceso.has("llaveProceso") ? proceso.get("llaveProceso").asText() : numeroRadicacion);
+
+        // Date fields
+        if (proceso.has("fechaProceso") && !proceso.get("fechaProceso").isNull()) {
+            String fechaProceso = proceso.get("fechaProceso").asText();
+            int timeSeparator = fechaProceso.indexOf('T');
+            processData.setFechaRadicacion(timeSeparator >= 0 ? fechaProceso.substring(0, timeSeparator) : fechaProceso);
+            processData.setFechaProceso(fechaProceso);
+        }
+
+        if (proceso.has("fechaUltimaActuacion") && !proceso.get("fechaUltimaActuacion").isNull()) {
+            processData.setFechaUltimaActuacion(proceso.get("fechaUltimaActuacion").asText());
+        }
+
+        // Court and case info
+        processData.setDespacho(proceso.has("despacho") ? proceso.get("despacho").asText() : "DESPACHO NO DISPONIBLE");
+        processData.setDepartamento(proceso.has("departamento") ? proceso.get("departamento").asText() : null);
+        processData.setTipoProceso(proceso.has("departamento") ? proceso.get("departamento").asText() : "TIPO NO DISPONIBLE");
+
+        // Parties information
+        processData.setDemandante(demandante);
+        processData.setDemandado(demandado);
+        processData.setSujetosProcesales(proceso.has("sujetosProcesales") ? proceso.get("sujetosProcesales").asText() : null);
+
+        // Process metadata
+        processData.setCantidadFolios(proceso.has("cantFilas") ? proceso.get("cantFilas").asInt() : 0);
+        processData.setEsPrivado(proceso.has("esPrivado") && proceso.get("esPrivado").asBoolean());
+        processData.setEstado("Activo"); // Default state for new processes
+        processData.setPortalUrl(portalUrl);
+
+        return processData;
+    }
+
+    /**
+     * Party names from a sujetosProcesales string such as
+     * "Demandante: ANA PEREZ | Demandado: BANCO XYZ".
+     */
+    public static String extractDemandante(String sujetos) {
+        return extractParty(sujetos, DEMANDANTE_PATTERN);
+    }
+
+    public static String extractDemandado(String sujetos) {
+        return extractParty(sujetos, DEMANDADO_PATTERN);
+    }
+
+    /**
+     * Activities of a Proceso/Actuaciones response, or null when it has no actuaciones array.
+     */
+    public static List<ProcessActivity> parseActivities(JsonNode responseJson) {
+        if (!responseJson.has("actuaciones") || !responseJson.get("actuaciones").isArray()) {
+            return null;
+        }
+
+        JsonNode actuaciones = responseJson.get("actuaciones");
+        List<ProcessActivity> activities = new ArrayList<>(actuaciones.size());
+
+        for (JsonNode actNode : actuaciones) {
+            ProcessActivity activity = new ProcessActivity();
+
+            activity.setIdActuacion(actNode.has("idActuacion") ? actNode.get("idActuacion").asLong() : null);
+            activity.setConsActuacion(actNode.has("consActuacion") ? actNode.get("consActuacion").asLong() : null);
+            activity.setFechaActuacion(actNode.has("fechaActuacion") ? actNode.get("fechaActuacion").asText() : null);
+            activity.setActuacion(actNode.has("actuacion") ? actNode.get("actuacion").asText() : null);
+            activity.setAnotacion(actNode.has("anotacion") ? actNode.get("anotacion").asText() : null);
+            activity.setFechaInicioTermino(actNode.has("fechaInicioTermino") ? actNode.get("fechaInicioTermino").asText() : null);
+            activity.setFechaFinalizaTermino(actNode.has("fechaFinalizaTermino") ? actNode.get("fechaFinalizaTermino").asText() : null);
+            activity.setCodigoRegla(actNode.has("codigoRegla") ? actNode.get("codigoRegla").asText() : null);
+            activity.setConDocumentos(actNode.has("conDocumentos") && actNode.get("conDocumentos").asBoolean());
+            activity.setCantFolios(actNode.has("cantFolios") ? actNode.get("cantFolios").asInt() : 0);
+
+            activities.add(activity);
+        }
+
+        return activities;
+    }
+
+    /**
+     * Subjects of a GetSujetosProcesales response, or null when it was not successful.
+     */
+    public static List<ProcessSubject> parseSubjects(JsonNode responseJson) {
+        if (!isSuccessfulList(responseJson)) {
+            return null;
+        }
+
+        JsonNode lsData = responseJson.get("lsData");
+        List<ProcessSubject> subjects = new ArrayList<>(lsData.size());
+
+        for (JsonNode subjectNode : lsData) {
+            ProcessSubject subject = new ProcessSubject();
+
+            subject.setIdSujetoProceso(subjectNode.has("lnIdSujetoProceso") ? subjectNode.get("lnIdSujetoProceso").asLong() : null);
+            subject.setNombreSujeto(subjectNode.has("lsNombreSujeto") ? subjectNode.get("lsNombreSujeto").asText() : null);
+            subject.setTipoSujeto(subjectNode.has("lsTipoSujeto") ? subjectNode.get("lsTipoSujeto").asText() : null);
+            subject.setIdentificacion(subjectNode.has("lsIdentificacion") ? subjectNode.get("lsIdentificacion").asText() : null);
+            subject.setTipoIdentificacion(subjectNode.has("lsTipoIdentificacion") ? subjectNode.get("lsTipoIdentificacion").asText() : null);
+            subject.setApoderado(subjectNode.has("lsApoderado") ? subjectNode.get("lsApoderado").asText() : null);
+            subject.setTieneApoderado(subjectNode.has("lbTieneApoderado") && "S".equals(subjectNode.get("lbTieneApoderado").asText()));
+
+            subjects.add(subject);
+        }
+
+        return subjects;
+    }
+
+    /**
+     * Documents of a GetDocumentos response, or null when it was not successful.
+     */
+    public static List<ProcessDocument> parseDocuments(JsonNode responseJson) {
+        if (!isSuccessfulList(responseJson)) {
+            return null;
+        }
+
+        JsonNode lsData = responseJson.get("lsData");
+        List<ProcessDocument> documents = new ArrayList<>(lsData.size());
+
+        for (JsonNode docNode : lsData) {
+            ProcessDocument document = new ProcessDocument();
+
+            document.setIdDocumento(docNode.has("lnIdDocumento") ? docNode.get("lnIdDocumento").asLong() : null);
+            document.setNombreArchivo(docNode.has("lsNombreArchivo") ? docNode.get("lsNombreArchivo").asText() : null);
+            document.setTipoDocumento(docNode.has("lsTipoDocumento") ? docNode.get("lsTipoDocumento").asText() : null);
+            document.setUrlDescarga(docNode.has("lsUrlDescarga") ? docNode.get("lsUrlDescarga").asText() : null);
+            document.setTamanoArchivo(docNode.has("lnTamanoArchivo") ? docNode.get("lnTamanoArchivo").asLong() : null);
+            document.setExtensionArchivo(docNode.has("lsExtensionArchivo") ? docNode.get("lsExtensionArchivo").asText() : null);
+            document.setFechaDocumento(docNode.has("ldFechaDocumento") ? docNode.get("ldFechaDocumento").asText() : null);
+
+            documents.add(document);
+        }
+
+        return documents;
+    }
+
+    private static String extractParty(String sujetos, Pattern pattern) {
+        Matcher matcher = pattern.matcher(sujetos);
+        return matcher.find() ? matcher.group(1).trim() : NOT_AVAILABLE;
+    }
+
+    private static boolean isSuccessfulList(JsonNode responseJson) {
+        return responseJson.has("isSuccess") && responseJson.get("isSuccess").asBoolean()
+            && responseJson.has("lsData") && responseJson.get("lsData").isArray();
+    }
+}
@@ -0,0 +1,111 @@
+package com.judicial.processes.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which request variant of a portal endpoint (URL, method and body
+ * encoding) has been answering, so callers that have to try several variants
+ * start with the one that worked recently instead of walking the list in a fixed
+ * order.
+ *
+ * Each variant keeps success and failure scores that halve every
+ * {@code half-life}, so the ranking follows the portal when it changes which
+ * variants it accepts. A variant that keeps failing without succeeding is
+ * considered dead and is only tried after every other one has failed.
+ */
+@Component
+public class PortalVariantSelector {
+
+    @Value("${portal.variants.half-life.minutes:30}")
+    private long halfLifeMinutes;
+
+    @Value("${portal.variants.dead-after-failures:3}")
+    private double deadAfterFailures;
+
+    private final Map<String, VariantStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * The candidates of {@code endpoint} in the order they should be tried: the
+     * best success rate first, dead variants last. Candidates with the same score
+     * keep their given order, so with no history the caller's order is used.
+     */
+    public <T> List<T> order(String endpoint, List<T> candidates, Function<T, String> variantName) {
+        long now = System.nanoTime();
+        List<Ranked<T>> ranked = new ArrayList<>(candidates.size());
+        for (T candidate : candidates) {
+            VariantStats variant = stats.get(key(endpoint, variantName.apply(candidate)));
+            ranked.add(variant == null
+                ? new Ranked<>(candidate, 0.5, false)
+                : variant.rank(candidate, now, halfLifeNanos(), deadAfterFailures));
+        }
+
+        ranked.sort(Comparator.<Ranked<T>, Boolean>comparing(Ranked::dead)
+            .thenComparing(Ranked::score, Comparator.reverseOrder()));
+
+        List<T> ordered = new ArrayList<>(ranked.size());
+        for (Ranked<T> r : ranked) {
+            ordered.add(r.candidate());
+        }
+        return ordered;
+    }
+
+    public void recordSuccess(String endpoint, String variantName) {
+        stats.computeIfAbsent(key(endpoint, variantName), k -> new VariantStats())
+            .record(true, System.nanoTime(), halfLifeNanos());
+    }
+
+    public void recordFailure(String endpoint, String variantName) {
+        stats.computeIfAbsent(key(endpoint, variantName), k -> new VariantStats())
+            .record(false, System.nanoTime(), halfLifeNanos());
+    }
+
+    private long halfLifeNanos() {
+        return Math.max(1, halfLifeMinutes) * 60_000_000_000L;
+    }
+
+    private static String key(String endpoint, String variantName) {
+        return endpoint + " " + variantName;
+    }
+
+    private record Ranked<T>(T candidate, double score, boolean dead) {
+    }
+
+    private static final class VariantStats {
+
+        private double successes;
+        private double failures;
+        private long updatedAt = System.nanoTime();
+
+        synchronized void record(boolean success, long now, long halfLifeNanos) {
+            decay(now, halfLifeNanos);
+            if (success) {
+                successes++;
+            } else {
+                failures++;
+            }
+        }
+
+        synchronized <T> Ranked<T> rank(T candidate, long now, long halfLifeNanos, double deadAfterFailures) {
+            decay(now, halfLifeNanos);
+            // Laplace-smoothed success rate, 0.5 for a variant with no recent history
+            double score = (successes + 1) / (successes + failures + 2);
+            boolean dead = failures >= deadAfterFailures && successes < 0.5;
+            return new Ranked<>(candidate, score, dead);
+        }
+
+        private void decay(long now, long halfLifeNanos) {
+            double factor = Math.pow(0.5, (double) (now - updatedAt) / halfLifeNanos);
+            successes *= factor;
+            failures *= factor;
+            updatedAt = now;
+        }
+    }
+}
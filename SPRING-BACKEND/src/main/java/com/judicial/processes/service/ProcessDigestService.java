@@ -0,0 +1,61 @@
+package com.judicial.processes.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.judicial.processes.entity.EmailOutboxMessage;
+
+/**
+ * Collects process changes per user and emails them as one digest once the
+ * user's window closes, instead of one email per changed process.
+ *
+ * Each change is stored right away as an outbox row that is due when the window
+ * closes, keyed by user, and the outbox merges a user's pending rows into one
+ * email when the first of them is due. Nothing waits in memory: pending changes
+ * survive a restart, and a failed insert reaches the caller instead of being lost.
+ */
+@Service
+public class ProcessDigestService {
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Value("${email.digest.window.millis:900000}")
+    private long windowMillis;
+
+    /**
+     * Add process changes to their users' open digests. Later changes to the same
+     * process within the window replace the earlier message. Fails with a
+     * RuntimeException when the changes could not be stored.
+     */
+    public void recordAll(List<ProcessChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime sendAfter = OffsetDateTime.now().plus(Duration.ofMillis(windowMillis));
+        List<EmailOutboxMessage> messages = new ArrayList<>(changes.size());
+        for (ProcessChange change : changes) {
+            EmailOutboxMessage message = emailOutboxService.buildProcessUpdateMessage(
+                change.email(), change.processNumber(), change.message());
+            if (windowMillis > 0) {
+                message.setDigestKey(change.userId());
+                message.setDigestProcess(change.processNumber());
+                message.setDigestDetails(change.message());
+                message.setNextAttemptAt(sendAfter);
+            }
+            messages.add(message);
+        }
+
+        emailOutboxService.enqueueAll(messages);
+    }
+
+    public record ProcessChange(String userId, String email, String processNumber, String message) {
+    }
+}
@@ -1,9 +1,20 @@
 package com.judicial.processes.service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,13 +23,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.judicial.processes.config.BlockingIoExecutors;
 import com.judicial.processes.dto.ProcessActivity;
 import com.judicial.processes.dto.ProcessData;
 import com.judicial.processes.entity.FavoriteProcess;
 import com.judicial.processes.entity.NotificationRecord;
 import com.judicial.processes.entity.ProcessSnapshot;
 import com.judicial.processes.repository.FavoriteProcessRepository;
+import com.judicial.processes.service.ProcessDigestService.ProcessChange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class ProcessMonitoringService {
@@ -40,15 +63,82 @@ public class ProcessMonitoringService {
     private NotificationService notificationService;
 
     @Autowired
-    private EmailService emailService;
+    private ProcessDigestService processDigestService;
 
     @Autowired
-    private SupabaseService supabaseService;
+    private UserContactService userContactService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReactivePortalClient reactivePortalClient;
+
+    @Autowired
+    private BlockingIoExecutors blockingIoExecutors;
 
     @Value("${monitoring.enabled:true}")
     private boolean monitoringEnabled;
 
-    private final Map<String, String> userEmailCache = new HashMap<>();
+    @Value("${monitoring.workers:4}")
+    private int workerCount;
+
+    @Value("${monitoring.reactive.enabled:false}")
+    private boolean reactiveScraping;
+
+    @Value("${monitoring.reactive.concurrency:256}")
+    private int reactiveConcurrency;
+
+    private ExecutorService checkExecutor;
+    private Scheduler checkScheduler;
+
+    private final AtomicInteger lastFavoriteCount = new AtomicInteger();
+    private final AtomicInteger lastDistinctProcessCount = new AtomicInteger();
+    private final AtomicLong lastCycleCompletedAt = new AtomicLong();
+
+    private Timer cycleTimer;
+    private Timer notificationTimer;
+    private Timer emailQueueTimer;
+    private Counter changeCounter;
+
+    @PostConstruct
+    public void start() {
+        checkExecutor = blockingIoExecutors.newFixedExecutor("process-monitor", workerCount);
+        checkScheduler = Schedulers.fromExecutorService(checkExecutor, "process-monitor");
+        registerMetrics();
+    }
+
+    @PreDestroy
+    public void stop() {
+        checkExecutor.shutdownNow();
+    }
+
+    private void registerMetrics() {
+        cycleTimer = Timer.builder("monitoring.cycle.duration")
+            .description("Duration of a full favorite processes monitoring cycle")
+            .publishPercentiles(0.5, 0.95)
+            .register(meterRegistry);
+        notificationTimer = Timer.builder("monitoring.notifications.persist")
+            .description("Time spent storing the notifications of a cycle")
+            .register(meterRegistry);
+        emailQueueTimer = Timer.builder("monitoring.emails.queue")
+            .description("Time spent resolving contacts and queueing the emails of a cycle")
+            .register(meterRegistry);
+        changeCounter = Counter.builder("monitoring.changes.detected")
+            .description("Processes whose portal data changed since the stored snapshot")
+            .register(meterRegistry);
+
+        Gauge.builder("monitoring.favorites", lastFavoriteCount, AtomicInteger::get)
+            .description("Favorites scanned in the last cycle")
+            .register(meterRegistry);
+        Gauge.builder("monitoring.processes.distinct", lastDistinctProcessCount, AtomicInteger::get)
+            .description("Distinct processes checked in the last cycle")
+            .register(meterRegistry);
+        Gauge.builder("monitoring.cycle.lag", lastCycleCompletedAt, this::secondsSinceLastCycle)
+            .description("Seconds since the last monitoring cycle completed")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
 
     @Scheduled(fixedDelayString = "${monitoring.interval.millis:600000}", initialDelayString = "${monitoring.initial-delay.millis:60000}")
     public void monitorFavoriteProcesses() {
@@ -57,55 +147,203 @@ public class ProcessMonitoringService {
             return;
         }
 
+        Timer.Sample cycleSample = Timer.start(meterRegistry);
+        try {
+            runMonitoringCycle();
+        } finally {
+            cycleSample.stop(cycleTimer);
+            lastCycleCompletedAt.set(System.currentTimeMillis());
+        }
+    }
+
+    private void runMonitoringCycle() {
         logger.info("Starting favorite processes monitoring cycle");
 
         List<FavoriteProcess> favorites = favoriteProcessRepository.findAll();
+        lastFavoriteCount.set(favorites.size());
         if (favorites.isEmpty()) {
+            lastDistinctProcessCount.set(0);
             logger.debug("No favorite processes registered");
             return;
         }
 
-        Map<String, ProcessData> processCache = new HashMap<>();
+        Map<String, List<FavoriteProcess>> followersByProcess = groupFollowersByProcess(favorites);
+        lastDistinctProcessCount.set(followersByProcess.size());
+        logger.debug("Monitoring {} distinct processes for {} favorites", followersByProcess.size(), favorites.size());
 
-        for (FavoriteProcess favorite : favorites) {
-            String processNumber = favorite.getNumeroRadicacion();
-            if (processNumber == null || processNumber.isBlank()) {
+        Map<String, List<NotificationRecord>> pendingNotifications = new LinkedHashMap<>();
+        Map<String, ProcessSnapshot> changedSnapshots = new HashMap<>();
+        List<PendingEmail> pendingEmails = new ArrayList<>();
+
+        // The results are gathered here so the pending lists are only touched by this thread
+        List<ProcessCheck> checks = reactiveScraping
+            ? checkProcessesReactively(followersByProcess.keySet())
+            : checkProcesses(followersByProcess.keySet());
+
+        for (ProcessCheck check : checks) {
+            if (check.changeDescription().isEmpty()) {
                 continue;
             }
 
-            ProcessData currentData = processCache.computeIfAbsent(processNumber, this::fetchLatestProcessData);
-            if (currentData == null) {
-                logger.debug("No data retrieved for process {}", processNumber);
-                continue;
+            changeCounter.increment();
+            String message = check.changeDescription().get();
+            List<NotificationRecord> notifications = new ArrayList<>();
+            for (FavoriteProcess follower : followersByProcess.get(check.processNumber())) {
+                notifications.add(buildNotification(follower, message));
+                pendingEmails.add(new PendingEmail(follower.getUserId(), check.processNumber(), message));
             }
+            pendingNotifications.put(check.processNumber(), notifications);
+            changedSnapshots.put(check.processNumber(), check.snapshot());
+        }
 
-            ProcessSnapshot previousSnapshot = processSnapshotService.getSnapshot(processNumber);
-            ProcessSnapshot newSnapshot = buildSnapshot(currentData);
+        // A change only counts as reported once its notifications are stored; the
+        // others keep their old snapshot and are detected again next cycle
+        Set<String> reported = notificationTimer.record(() -> persistNotifications(pendingNotifications));
+        for (String processNumber : reported) {
+            saveSnapshot(changedSnapshots.get(processNumber));
+        }
 
-            Optional<String> changeDescription = describeChange(previousSnapshot, newSnapshot, currentData);
-            if (changeDescription.isEmpty()) {
-                continue;
+        pendingEmails.removeIf(pendingEmail -> !reported.contains(pendingEmail.processNumber()));
+        emailQueueTimer.record(() -> queueEmails(pendingEmails));
+
+        logger.info("Finished favorite processes monitoring cycle ({} processes, {} of {} changes reported)",
+            followersByProcess.size(), reported.size(), pendingNotifications.size());
+    }
+
+    /**
+     * Scrape and compare each process on the worker pool.
+     */
+    private List<ProcessCheck> checkProcesses(Set<String> processNumbers) {
+        CompletionService<ProcessCheck> completions = new ExecutorCompletionService<>(checkExecutor);
+        for (String processNumber : processNumbers) {
+            completions.submit(() -> checkProcess(processNumber));
+        }
+
+        List<ProcessCheck> checks = new ArrayList<>(processNumbers.size());
+        for (int remaining = processNumbers.size(); remaining > 0; remaining--) {
+            try {
+                checks.add(completions.take().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Monitoring cycle interrupted with {} processes pending", remaining);
+                break;
+            } catch (ExecutionException e) {
+                logger.error("Unexpected failure checking a monitored process", e.getCause());
             }
+        }
+        return checks;
+    }
 
-            processSnapshotService.upsertSnapshot(newSnapshot);
+    /**
+     * Scrape with the non-blocking portal client, keeping up to reactiveConcurrency
+     * scrapes in flight, and hand each result to the worker pool for the blocking
+     * snapshot comparison.
+     */
+    private List<ProcessCheck> checkProcessesReactively(Set<String> processNumbers) {
+        return Flux.fromIterable(processNumbers)
+            .flatMap(processNumber -> fetchLatestProcessDataReactively(processNumber)
+                .map(currentData -> Map.entry(processNumber, currentData)), reactiveConcurrency)
+            .flatMap(fetched -> Mono.fromCallable(() -> evaluateChange(fetched.getKey(), fetched.getValue()))
+                .subscribeOn(checkScheduler), workerCount)
+            .collectList()
+            .block();
+    }
 
-            String message = changeDescription.get();
-            createNotification(favorite, message);
-            sendEmailIfPossible(favorite, message, processNumber);
+    private ProcessCheck checkProcess(String processNumber) {
+        ProcessData currentData = fetchLatestProcessData(processNumber);
+        if (currentData == null) {
+            logger.debug("No data retrieved for process {}", processNumber);
+            return new ProcessCheck(processNumber, Optional.empty(), null);
         }
+        return evaluateChange(processNumber, currentData);
+    }
 
-        logger.info("Finished favorite processes monitoring cycle");
+    private ProcessCheck evaluateChange(String processNumber, ProcessData currentData) {
+        try {
+            return detectChange(processNumber, currentData);
+        } catch (Exception e) {
+            logger.error("Unable to evaluate changes for process {}", processNumber, e);
+            return new ProcessCheck(processNumber, Optional.empty(), null);
+        }
+    }
+
+    /**
+     * Group favorites by radicación so each process is scraped and compared once,
+     * keeping a single entry per user even if the favorite was stored twice.
+     */
+    private Map<String, List<FavoriteProcess>> groupFollowersByProcess(List<FavoriteProcess> favorites) {
+        Map<String, List<FavoriteProcess>> followersByProcess = new LinkedHashMap<>();
+        Map<String, Set<String>> seenUsers = new HashMap<>();
+
+        for (FavoriteProcess favorite : favorites) {
+            String processNumber = favorite.getNumeroRadicacion();
+            if (processNumber == null || processNumber.isBlank() || favorite.getUserId() == null) {
+                continue;
+            }
+
+            if (seenUsers.computeIfAbsent(processNumber, key -> new HashSet<>()).add(favorite.getUserId())) {
+                followersByProcess.computeIfAbsent(processNumber, key -> new ArrayList<>()).add(favorite);
+            }
+        }
+
+        return followersByProcess;
+    }
+
+    /**
+     * Compare the latest portal data against the stored snapshot. Runs once per
+     * process per cycle; the new snapshot is stored by the cycle once the change's
+     * notifications are.
+     */
+    private ProcessCheck detectChange(String processNumber, ProcessData currentData) {
+        ProcessSnapshot previousSnapshot = processSnapshotService.getSnapshot(processNumber);
+        ProcessSnapshot newSnapshot = buildSnapshot(currentData);
+
+        return new ProcessCheck(processNumber, describeChange(previousSnapshot, newSnapshot, currentData), newSnapshot);
+    }
+
+    private void saveSnapshot(ProcessSnapshot snapshot) {
+        try {
+            processSnapshotService.upsertSnapshot(snapshot);
+        } catch (Exception e) {
+            // The change was notified; it is reported again next cycle rather than lost
+            logger.warn("Snapshot of process {} not stored, its change will be notified again", snapshot.getProcessNumber());
+        }
     }
 
     private ProcessData fetchLatestProcessData(String processNumber) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            return judicialScrapingService.scrapeProcessData(processNumber, false);
+            ProcessData processData = judicialScrapingService.scrapeProcessData(processNumber, false);
+            outcome = processData != null ? "success" : "empty";
+            return processData;
         } catch (Exception e) {
             logger.error("Unable to fetch data for process {}", processNumber, e);
             return null;
+        } finally {
+            sample.stop(meterRegistry.timer("monitoring.scrapes", "mode", "full", "outcome", outcome));
         }
     }
 
+    private Mono<ProcessData> fetchLatestProcessDataReactively(String processNumber) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return reactivePortalClient.scrapeProcessData(processNumber, false)
+                .doOnSuccess(processData -> sample.stop(meterRegistry.timer("monitoring.scrapes",
+                    "mode", "full", "outcome", processData != null ? "success" : "empty")))
+                .doOnSuccess(processData -> {
+                    if (processData == null) {
+                        logger.debug("No data retrieved for process {}", processNumber);
+                    }
+                });
+        });
+    }
+
+    private double secondsSinceLastCycle(AtomicLong completedAt) {
+        long last = completedAt.get();
+        return last == 0 ? Double.NaN : TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - last);
+    }
+
     private ProcessSnapshot buildSnapshot(ProcessData processData) {
         ProcessSnapshot snapshot = new ProcessSnapshot();
         snapshot.setProcessId(processData.getIdProceso() != null ? processData.getIdProceso().toString() : null);
@@ -202,7 +440,7 @@ public class ProcessMonitoringService {
         return message.toString();
     }
 
-    private void createNotification(FavoriteProcess favorite, String message) {
+    private NotificationRecord buildNotification(FavoriteProcess favorite, String message) {
         NotificationRecord notification = new NotificationRecord(
             favorite.getUserId(),
             null,
@@ -210,40 +448,74 @@ public class ProcessMonitoringService {
             message
         );
         notification.setType("in_app");
-        notificationService.createNotification(notification);
+        return notification;
     }
 
-    private void sendEmailIfPossible(FavoriteProcess favorite, String message, String processNumber) {
-        String email = resolveUserEmail(favorite.getUserId());
-        if (email == null || email.isBlank()) {
-            logger.debug("No email found for user {} to send process update", favorite.getUserId());
-            return;
+    /**
+     * Store the notifications of every changed process with one insert, falling back
+     * to one insert per process when that fails so a single bad row or process only
+     * holds back its own. Returns the processes whose notifications were stored.
+     */
+    private Set<String> persistNotifications(Map<String, List<NotificationRecord>> notificationsByProcess) {
+        if (notificationsByProcess.isEmpty()) {
+            return Set.of();
         }
 
+        List<NotificationRecord> notifications = new ArrayList<>();
+        notificationsByProcess.values().forEach(notifications::addAll);
         try {
-            emailService.sendProcessUpdateNotification(email, processNumber, message);
+            notificationService.createNotifications(notifications);
+            return notificationsByProcess.keySet();
         } catch (Exception e) {
-            logger.error("Failed to send process update email to {}", email, e);
+            logger.warn("Failed to store {} process update notifications at once, retrying per process",
+                notifications.size(), e);
         }
+
+        Set<String> stored = new HashSet<>();
+        for (Map.Entry<String, List<NotificationRecord>> entry : notificationsByProcess.entrySet()) {
+            try {
+                notificationService.createNotifications(entry.getValue());
+                stored.add(entry.getKey());
+            } catch (Exception e) {
+                logger.error("Failed to store {} notifications for process {}", entry.getValue().size(), entry.getKey(), e);
+            }
+        }
+        return stored;
     }
 
-    private String resolveUserEmail(String userId) {
-        if (userEmailCache.containsKey(userId)) {
-            return userEmailCache.get(userId);
+    private void queueEmails(List<PendingEmail> pendingEmails) {
+        if (pendingEmails.isEmpty()) {
+            return;
         }
 
+        Set<String> recipients = new HashSet<>();
+        pendingEmails.forEach(pendingEmail -> recipients.add(pendingEmail.userId()));
         try {
-            JsonNode userNode = supabaseService.getAuthUserById(userId);
-            if (userNode != null && userNode.has("email")) {
-                String email = userNode.get("email").asText();
-                userEmailCache.put(userId, email);
-                return email;
+            userContactService.prefetch(recipients);
+        } catch (Exception e) {
+            logger.warn("Failed to prefetch contacts for {} users", recipients.size(), e);
+        }
+
+        List<ProcessChange> changes = new ArrayList<>();
+        for (PendingEmail pendingEmail : pendingEmails) {
+            String email = userContactService.resolveEmail(pendingEmail.userId());
+            if (email == null || email.isBlank()) {
+                logger.debug("No email found for user {} to send process update", pendingEmail.userId());
+                continue;
             }
+            changes.add(new ProcessChange(pendingEmail.userId(), email, pendingEmail.processNumber(), pendingEmail.message()));
+        }
+
+        try {
+            processDigestService.recordAll(changes);
         } catch (Exception e) {
-            logger.error("Error resolving email for user {}", userId, e);
+            logger.error("Failed to queue {} process update emails", changes.size(), e);
         }
+    }
+
+    private record ProcessCheck(String processNumber, Optional<String> changeDescription, ProcessSnapshot snapshot) {
+    }
 
-        userEmailCache.put(userId, null);
-        return null;
+    private record PendingEmail(String userId, String processNumber, String message) {
     }
 }
@@ -0,0 +1,108 @@
+package com.judicial.processes.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.cache.TtlCache;
+import com.judicial.processes.service.JudicialScrapingService.ProcessVersion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Response bodies of the process read endpoints, already serialized to JSON and,
+ * when large enough, gzip-compressed. Entries are keyed by the process version,
+ * so a new save simply stops matching and the old entry ages out.
+ */
+@Service
+public class ProcessPayloadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessPayloadCache.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${process-payload-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${process-payload-cache.max-size:200}")
+    private int maxSize;
+
+    @Value("${process-payload-cache.ttl.millis:600000}")
+    private long ttlMillis;
+
+    @Value("${process-payload-cache.max-payload-bytes:1048576}")
+    private int maxPayloadBytes;
+
+    @Value("${process-payload-cache.compression-threshold-bytes:2048}")
+    private int compressionThresholdBytes;
+
+    private TtlCache<String, Payload> payloads;
+
+    @PostConstruct
+    public void init() {
+        payloads = new TtlCache<>(maxSize, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * The cached payload of {@code endpoint} for this version of the process, or null.
+     */
+    public Payload getIfPresent(String endpoint, ProcessVersion version) {
+        if (!enabled || version == null) {
+            return null;
+        }
+
+        Payload payload = payloads.getIfPresent(key(endpoint, version));
+        meterRegistry.counter("process.payload.cache", "endpoint", endpoint, "result", payload != null ? "hit" : "miss").increment();
+        return payload;
+    }
+
+    /**
+     * Serialize {@code body} once and keep the bytes for later requests of the same
+     * version. Oversized payloads are returned but not cached.
+     */
+    public Payload store(String endpoint, ProcessVersion version, Object body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        byte[] gzip = json.length >= compressionThresholdBytes ? gzip(json) : null;
+        Payload payload = new Payload(json, gzip);
+
+        if (enabled && version != null) {
+            if (json.length <= maxPayloadBytes) {
+                payloads.put(key(endpoint, version), payload);
+            } else {
+                logger.debug("Not caching {} payload of {} bytes for process {}", endpoint, json.length, version.processId());
+            }
+        }
+        return payload;
+    }
+
+    private String key(String endpoint, ProcessVersion version) {
+        return endpoint + ":" + version.etag();
+    }
+
+    private byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Serialized JSON body; {@code gzip} is null when the body is too small to be worth compressing.
+     */
+    public record Payload(byte[] json, byte[] gzip) {
+    }
+}
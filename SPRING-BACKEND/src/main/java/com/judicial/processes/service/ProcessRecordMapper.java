@@ -0,0 +1,104 @@
+package com.judicial.processes.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.judicial.processes.dto.ProcessActivity;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.dto.ProcessDocument;
+import com.judicial.processes.dto.ProcessSubject;
+
+/**
+ * Builds the Supabase rows written when a scraped process is saved.
+ */
+public final class ProcessRecordMapper {
+
+    private ProcessRecordMapper() {
+    }
+
+    public static Map<String, Object> toProcessRecord(ProcessData processData, String updatedAt) {
+        Map<String, Object> processRecord = new HashMap<>(48);
+
+        // Portal API fields
+        processRecord.put("id_proceso", processData.getIdProceso());
+        processRecord.put("id_conexion", processData.getIdConexion());
+        processRecord.put("numero_radicacion", processData.getNumeroRadicacion());
+
+        // Date fields
+        processRecord.put("fecha_radicacion", processData.getFechaRadicacion());
+        processRecord.put("fecha_proceso", processData.getFechaProceso());
+        processRecord.put("fecha_ultima_actuacion", processData.getFechaUltimaActuacion());
+
+        // Court and case info
+        processRecord.put("despacho", processData.getDespacho());
+        processRecord.put("departamento", processData.getDepartamento());
+        processRecord.put("ponente", processData.getPonente());
+        processRecord.put("ubicacion_expediente", processData.getUbicacionExpediente());
+        processRecord.put("tipo_proceso", processData.getTipoProceso());
+        processRecord.put("clase_proceso", processData.getClaseProceso());
+        processRecord.put("subclase_proceso", processData.getSubclaseProceso());
+
+        // Parties information
+        processRecord.put("demandante", processData.getDemandante());
+        processRecord.put("demandado", processData.getDemandado());
+        processRecord.put("sujetos_procesales", processData.getSujetosProcesales());
+        processRecord.put("apoderado_demandante", processData.getApoderadoDemandante());
+        processRecord.put("apoderado_demandado", processData.getApoderadoDemandado());
+
+        // Process metadata
+        processRecord.put("cantidad_folios", processData.getCantidadFolios());
+        processRecord.put("es_privado", processData.getEsPrivado() != null ? processData.getEsPrivado() : false);
+        processRecord.put("estado", processData.getEstado() != null ? processData.getEstado() : "Activo");
+        processRecord.put("solo_activos", processData.getSoloActivos() != null ? processData.getSoloActivos() : false);
+        processRecord.put("portal_url", processData.getPortalUrl());
+
+        // Timestamps - ALWAYS update these
+        processRecord.put("updated_at", updatedAt);
+        // Only set created_at if it's a new record (Supabase will handle this)
+
+        return processRecord;
+    }
+
+    public static Map<String, Object> toActivityRecord(String processId, ProcessActivity activity) {
+        Map<String, Object> activityRecord = new HashMap<>(16);
+        activityRecord.put("process_id", processId);
+        activityRecord.put("id_actuacion", activity.getIdActuacion());
+        activityRecord.put("cons_actuacion", activity.getConsActuacion());
+        activityRecord.put("fecha_actuacion", activity.getFechaActuacion());
+        activityRecord.put("actuacion", activity.getActuacion());
+        activityRecord.put("anotacion", activity.getAnotacion());
+        activityRecord.put("fecha_inicio_termino", activity.getFechaInicioTermino());
+        activityRecord.put("fecha_finaliza_termino", activity.getFechaFinalizaTermino());
+        activityRecord.put("codigo_regla", activity.getCodigoRegla());
+        activityRecord.put("con_documentos", activity.getConDocumentos());
+        activityRecord.put("cant_folios", activity.getCantFolios());
+        return activityRecord;
+    }
+
+    public static Map<String, Object> toSubjectRecord(String processId, ProcessSubject subject) {
+        Map<String, Object> subjectRecord = new HashMap<>(16);
+        subjectRecord.put("process_id", processId);
+        subjectRecord.put("id_sujeto_proceso", subject.getIdSujetoProceso());
+        subjectRecord.put("nombre_sujeto", subject.getNombreSujeto());
+        subjectRecord.put("tipo_sujeto", subject.getTipoSujeto());
+        subjectRecord.put("identificacion", subject.getIdentificacion());
+        subjectRecord.put("tipo_identificacion", subject.getTipoIdentificacion());
+        subjectRecord.put("apoderado", subject.getApoderado());
+        subjectRecord.put("tiene_apoderado", subject.getTieneApoderado());
+        return subjectRecord;
+    }
+
+    public static Map<String, Object> toDocumentRecord(String processId, ProcessDocument document) {
+        Map<String, Object> documentRecord = new HashMap<>(16);
+        documentRecord.put("process_id", processId);
+        documentRecord.put("actuacion_id", null); // Could be linked to specific activity later
+        documentRecord.put("id_documento", document.getIdDocumento());
+        documentRecord.put("nombre_archivo", document.getNombreArchivo());
+        documentRecord.put("tipo_documento", document.getTipoDocumento());
+        documentRecord.put("url_descarga", document.getUrlDescarga());
+        documentRecord.put("tamano_archivo", document.getTamanoArchivo());
+        documentRecord.put("extension_archivo", document.getExtensionArchivo());
+        documentRecord.put("fecha_documento", document.getFechaDocumento());
+        return documentRecord;
+    }
+}
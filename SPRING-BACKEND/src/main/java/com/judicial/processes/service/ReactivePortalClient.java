@@ -0,0 +1,357 @@
+package com.judicial.processes.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.judicial.processes.dto.ProcessActivity;
+import com.judicial.processes.dto.ProcessData;
+import com.judicial.processes.dto.ProcessDocument;
+import com.judicial.processes.dto.ProcessSubject;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking counterpart of {@link JudicialScrapingService}'s portal calls, on
+ * WebClient and Reactor Netty. A scrape fetches the portal cookies once, then the
+ * basic info, and then activities (with their documents) and subjects
+ * concurrently. The same endpoints, fallbacks and {@code judicial.portal.requests}
+ * metrics as the blocking client are used.
+ *
+ * Nothing here waits on a thread, so a handful of event-loop threads can keep
+ * thousands of scrapes in flight; callers bound how many they start at once
+ * (e.g. with {@code flatMap} concurrency) and the connection pool queues the rest.
+ */
+@Service
+public class ReactivePortalClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePortalClient.class);
+
+    @Value("${portal.base-url:https://consultaprocesos.ramajudicial.gov.co}")
+    private String baseUrl;
+
+    @Value("${portal.api-url:https://consultaprocesos.ramajudicial.gov.co:448}")
+    private String apiUrl;
+
+    @Value("${portal.reactive.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${portal.reactive.request-timeout.millis:30000}")
+    private long requestTimeoutMillis;
+
+    @Value("${portal.reactive.scrape-timeout.millis:120000}")
+    private long scrapeTimeoutMillis;
+
+    @Value("${portal.reactive.document-concurrency:4}")
+    private int documentConcurrency;
+
+    @Value("${portal.reactive.max-response-bytes:16777216}")
+    private int maxResponseBytes;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String apiBase;
+    private String portalApiUrl;
+    private String activitiesApiUrl;
+    private String subjectsApiUrl;
+    private String apiHost;
+
+    private Duration requestTimeout;
+    private Duration scrapeTimeout;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @PostConstruct
+    public void init() {
+        apiBase = baseUrl + "/api";
+        portalApiUrl = apiUrl + "/api/v2/Procesos/Consulta/NumeroRadicacion";
+        activitiesApiUrl = apiUrl + "/api/v2/Proceso/Actuaciones";
+        subjectsApiUrl = apiUrl + "/api/v1/Process/GetSujetosProcesales";
+        apiHost = URI.create(apiUrl).getAuthority();
+
+        requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        scrapeTimeout = Duration.ofMillis(scrapeTimeoutMillis);
+
+        // Callers limit their own concurrency, so requests over maxConnections wait
+        // for a connection instead of failing
+        connectionProvider = ConnectionProvider.builder("judicial-portal")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(requestTimeout)
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .compress(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000);
+
+        webClient = webClientBuilder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+            .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Scrape a process like {@link JudicialScrapingService#scrapeProcessData(String, Boolean)}.
+     * Completes empty where the blocking client returns null: the portal has no
+     * such process, or the scrape failed or timed out.
+     */
+    public Mono<ProcessData> scrapeProcessData(String numeroRadicacion, Boolean soloActivos) {
+        return fetchCookies(numeroRadicacion)
+            .flatMap(cookies -> fetchBasicInfo(numeroRadicacion, soloActivos, cookies)
+                .flatMap(basicInfo -> completeProcessData(numeroRadicacion, basicInfo, cookies)))
+            .timeout(scrapeTimeout)
+            .doOnSuccess(processData -> {
+                if (processData != null) {
+                    logger.info("Successfully scraped data for process: {}", numeroRadicacion);
+                } else {
+                    logger.warn("No basic info found for process: {}", numeroRadicacion);
+                }
+            })
+            .onErrorResume(error -> {
+                logger.error("Error scraping process {}: {}", numeroRadicacion, error.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    public Mono<ProcessData> fetchBasicInfo(String numeroRadicacion, Boolean soloActivos) {
+        return fetchCookies(numeroRadicacion).flatMap(cookies -> fetchBasicInfo(numeroRadicacion, soloActivos, cookies));
+    }
+
+    public Mono<List<ProcessActivity>> fetchActivities(String numeroRadicacion) {
+        return fetchCookies(numeroRadicacion).flatMap(cookies -> fetchActivities(numeroRadicacion, cookies));
+    }
+
+    public Mono<List<ProcessSubject>> fetchSubjects(String numeroRadicacion) {
+        return fetchCookies(numeroRadicacion).flatMap(cookies -> fetchSubjects(numeroRadicacion, cookies));
+    }
+
+    public Mono<List<ProcessDocument>> fetchDocuments(String numeroRadicacion, List<ProcessActivity> activities) {
+        return fetchCookies(numeroRadicacion).flatMap(cookies -> fetchDocuments(numeroRadicacion, activities, cookies));
+    }
+
+    private Mono<ProcessData> completeProcessData(String numeroRadicacion, ProcessData basicInfo, Optional<String> cookies) {
+        if (basicInfo.getNumeroRadicacion() == null || basicInfo.getNumeroRadicacion().isEmpty()) {
+            logger.warn("Invalid basic info for process: {}", numeroRadicacion);
+            return Mono.empty();
+        }
+
+        Mono<List<ProcessDocument>> activitiesAndDocuments = fetchActivities(numeroRadicacion, cookies)
+            .doOnNext(basicInfo::setActuaciones)
+            .flatMap(activities -> fetchDocuments(numeroRadicacion, activities, cookies))
+            .doOnNext(basicInfo::setDocumentos);
+        Mono<List<ProcessSubject>> subjects = fetchSubjects(numeroRadicacion, cookies)
+            .doOnNext(basicInfo::setSujetos);
+
+        return Mono.when(activitiesAndDocuments, subjects).thenReturn(basicInfo);
+    }
+
+    /**
+     * Load the portal page once to collect the cookies replayed on the API calls.
+     */
+    private Mono<Optional<String>> fetchCookies(String numeroRadicacion) {
+        WebClient.RequestHeadersSpec<?> request = webClient.get()
+            .uri(pageUrl(numeroRadicacion))
+            .headers(headers -> PortalBrowserHeaders.applyPageHeaders(headers, baseUrl));
+
+        return exchange("cookies", request)
+            .map(response -> Optional.ofNullable(PortalBrowserHeaders.cookieHeader(response.getHeaders().get(HttpHeaders.SET_COOKIE))))
+            .onErrorResume(error -> {
+                logger.debug("Could not fetch portal cookies: {}", error.getMessage());
+                return Mono.just(Optional.empty());
+            });
+    }
+
+    private Mono<ProcessData> fetchBasicInfo(String numeroRadicacion, Boolean soloActivos, Optional<String> cookies) {
+        String url = UriComponentsBuilder.fromHttpUrl(portalApiUrl)
+            .queryParam("numero", numeroRadicacion.trim())
+            .queryParam("SoloActivos", soloActivos != null ? soloActivos : false)
+            .queryParam("pagina", 1)
+            .toUriString();
+
+        return exchange("basic-info", webClient.get().uri(url).headers(apiHeaders(numeroRadicacion, cookies, true)))
+            .flatMap(response -> parseBody(response,
+                json -> PortalResponseParser.parseBasicInfo(json, numeroRadicacion, pageUrl(numeroRadicacion))))
+            .onErrorResume(error -> {
+                logger.error("Error getting basic info for {}: {}", numeroRadicacion, error.getMessage());
+                return Mono.just(JudicialScrapingService.fallbackBasicInfo(numeroRadicacion, pageUrl(numeroRadicacion)));
+            });
+    }
+
+    private Mono<List<ProcessActivity>> fetchActivities(String numeroRadicacion, Optional<String> cookies) {
+        return fetchActivitiesFrom(activitiesApiUrl, numeroRadicacion, cookies, true)
+            .onErrorResume(error -> {
+                logger.warn("Initial activities request failed for {} ({}). Trying alternate host without :448.",
+                    numeroRadicacion, error.getMessage());
+                return fetchActivitiesFrom(apiBase + "/v2/Proceso/Actuaciones", numeroRadicacion, cookies, false)
+                    .onErrorResume(altError -> {
+                        logger.error("Alternate activities request failed for {}: {}", numeroRadicacion, altError.getMessage());
+                        return Mono.empty();
+                    });
+            })
+            .switchIfEmpty(Mono.fromSupplier(ArrayList::new));
+    }
+
+    private Mono<List<ProcessActivity>> fetchActivitiesFrom(String baseActivitiesUrl, String numeroRadicacion,
+                                                            Optional<String> cookies, boolean explicitPort) {
+        String url = UriComponentsBuilder.fromHttpUrl(baseActivitiesUrl)
+            .queryParam("numero", numeroRadicacion.trim())
+            .queryParam("pagina", 1)
+            .toUriString();
+
+        return exchange("activities", webClient.get().uri(url).headers(apiHeaders(numeroRadicacion, cookies, explicitPort)))
+            .flatMap(response -> parseBody(response, PortalResponseParser::parseActivities));
+    }
+
+    private Mono<List<ProcessSubject>> fetchSubjects(String numeroRadicacion, Optional<String> cookies) {
+        return fetchSubjectsFrom(apiBase + "/v1/Process/GetSujetosProcesales", numeroRadicacion, cookies, false)
+            .onErrorResume(error -> {
+                logger.error("Error getting subjects for {}: {}", numeroRadicacion, error.getMessage());
+                // Try alternate host with :448 if initial POST fails
+                return fetchSubjectsFrom(subjectsApiUrl, numeroRadicacion, cookies, true)
+                    .onErrorResume(altError -> {
+                        logger.error("Alternate subjects request failed for {}: {}", numeroRadicacion, altError.getMessage());
+                        return Mono.empty();
+                    });
+            })
+            .switchIfEmpty(Mono.fromSupplier(ArrayList::new));
+    }
+
+    private Mono<List<ProcessSubject>> fetchSubjectsFrom(String url, String numeroRadicacion,
+                                                         Optional<String> cookies, boolean explicitPort) {
+        WebClient.RequestHeadersSpec<?> request = webClient.post()
+            .uri(url)
+            .headers(apiHeaders(numeroRadicacion, cookies, explicitPort))
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of("lsNroRadicacion", numeroRadicacion.trim()));
+
+        return exchange("subjects", request)
+            .flatMap(response -> parseBody(response, PortalResponseParser::parseSubjects));
+    }
+
+    /**
+     * Documents of every activity that has them, fetched a few activities at a
+     * time and returned in activity order.
+     */
+    private Mono<List<ProcessDocument>> fetchDocuments(String numeroRadicacion, List<ProcessActivity> activities,
+                                                       Optional<String> cookies) {
+        return Flux.fromIterable(activities)
+            .filter(activity -> Boolean.TRUE.equals(activity.getConDocumentos()) && activity.getIdActuacion() != null)
+            .flatMapSequential(activity -> fetchDocumentsForActivity(numeroRadicacion, activity.getIdActuacion(), cookies),
+                documentConcurrency)
+            .flatMapIterable(Function.identity())
+            .collectList();
+    }
+
+    private Mono<List<ProcessDocument>> fetchDocumentsForActivity(String numeroRadicacion, Long idActuacion,
+                                                                  Optional<String> cookies) {
+        WebClient.RequestHeadersSpec<?> request = webClient.post()
+            .uri(apiBase + "/Process/GetDocumentos")
+            .headers(apiHeaders(numeroRadicacion, cookies, false))
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(Map.of("lsNroRadicacion", numeroRadicacion.trim(), "lnIdActuacion", idActuacion));
+
+        return exchange("documents", request)
+            .flatMap(response -> parseBody(response, PortalResponseParser::parseDocuments))
+            .onErrorResume(error -> {
+                logger.error("Error getting documents for activity {}: {}", idActuacion, error.getMessage());
+                return Mono.empty();
+            })
+            .switchIfEmpty(Mono.fromSupplier(ArrayList::new));
+    }
+
+    /**
+     * Send a request and record its latency under the same metric as the blocking
+     * client. Like RestTemplate, 4xx and 5xx responses are signalled as errors.
+     */
+    private Mono<ResponseEntity<String>> exchange(String endpoint, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return request.retrieve()
+                .toEntity(String.class)
+                .timeout(requestTimeout)
+                .doOnSuccess(response -> sample.stop(portalTimer(endpoint, response != null && response.getStatusCode().is2xxSuccessful()
+                    ? "success"
+                    : "status_" + (response != null ? response.getStatusCode().value() : 0))))
+                .doOnError(error -> sample.stop(portalTimer(endpoint, error instanceof WebClientResponseException responseError
+                    ? "status_" + responseError.getStatusCode().value()
+                    : "error")));
+        });
+    }
+
+    private Timer portalTimer(String endpoint, String outcome) {
+        return Timer.builder("judicial.portal.requests")
+            .description("Latency of calls to the Rama Judicial portal")
+            .tag("endpoint", endpoint)
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Parse a 200 response with {@code parser}; empty when there is no body or the
+     * parser found nothing to map.
+     */
+    private <T> Mono<T> parseBody(ResponseEntity<String> response, Function<JsonNode, T> parser) {
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            logger.warn("Portal request returned status {} with body: {}", response.getStatusCode().value(), response.getBody());
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> parser.apply(objectMapper.readTree(response.getBody())));
+    }
+
+    private Consumer<HttpHeaders> apiHeaders(String numeroRadicacion, Optional<String> cookies, boolean explicitPort) {
+        return headers -> {
+            PortalBrowserHeaders.applyApiHeaders(headers, baseUrl, pageUrl(numeroRadicacion), cookies.orElse(null),
+                explicitPort ? apiHost : null);
+            // Reactor Netty negotiates and decodes gzip itself, but cannot decode br
+            headers.remove(HttpHeaders.ACCEPT_ENCODING);
+        };
+    }
+
+    private String pageUrl(String numeroRadicacion) {
+        return baseUrl + "/Procesos/NumeroRadicacion?numeroRadicacion=" + numeroRadicacion.trim();
+    }
+}
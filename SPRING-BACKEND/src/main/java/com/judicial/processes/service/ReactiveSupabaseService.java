@@ -0,0 +1,229 @@
+package com.judicial.processes.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.judicial.processes.config.SupabaseProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking counterpart of {@link SupabaseService}'s PostgREST operations on
+ * WebClient. Each call returns a cold Mono, so independent queries can be started
+ * together (e.g. with {@code Mono.zip}) and share the pooled connections; against
+ * an https Supabase URL they are multiplexed over HTTP/2, falling back to
+ * HTTP/1.1 when the server does not negotiate it.
+ *
+ * Only reads are offered; writes go through the blocking service. {@link #select}
+ * falls back to an empty array on failure like the blocking service, while the
+ * paged reads fail the Mono.
+ */
+@Service
+public class ReactiveSupabaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveSupabaseService.class);
+
+    private static final int IN_FILTER_CHUNK_SIZE = 100;
+
+    @Autowired
+    private SupabaseProperties supabaseProperties;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${supabase.reactive.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${supabase.reactive.timeout.millis:15000}")
+    private long timeoutMillis;
+
+    @Value("${supabase.reactive.max-response-bytes:16777216}")
+    private int maxResponseBytes;
+
+    private Duration timeout;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @PostConstruct
+    public void init() {
+        timeout = Duration.ofMillis(timeoutMillis);
+
+        connectionProvider = ConnectionProvider.builder("supabase")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(timeout)
+            .maxIdleTime(Duration.ofSeconds(30))
+            .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider).compress(true);
+        if (supabaseProperties.getRestUrl() != null && supabaseProperties.getRestUrl().startsWith("https:")) {
+            // HTTP/2 is negotiated through ALPN, so it needs TLS; HTTP/1.1 stays as the fallback
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        webClient = webClientBuilder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+            .defaultHeaders(serviceRoleHeaders())
+            .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Select data from Supabase table with optional filters
+     */
+    public Mono<JsonNode> select(String table, Map<String, Object> filters) {
+        UriComponentsBuilder uriBuilder = tableUri(table).queryParam("select", "*");
+        addEqualityFilters(uriBuilder, filters);
+
+        return get(uriBuilder)
+            .onErrorResume(e -> {
+                logger.error("Supabase select error in table " + table, e);
+                return Mono.just(objectMapper.createArrayNode());
+            });
+    }
+
+    /**
+     * All rows of {@code table} matching {@code filters} in PostgREST {@code order}
+     * (e.g. {@code created_at.asc}), read in pages of {@code supabase.max-rows}.
+     * Unlike {@link #select}, a failed query fails the Mono instead of yielding an
+     * empty array, so callers can tell "no rows" from "could not load".
+     */
+    public Mono<JsonNode> selectAll(String table, Map<String, Object> filters, String order) {
+        return getAllPages(() -> {
+                UriComponentsBuilder uriBuilder = tableUri(table).queryParam("select", "*");
+                addEqualityFilters(uriBuilder, filters);
+                return uriBuilder;
+            }, order)
+            .doOnError(e -> logger.error("Supabase selectAll error in table " + table, e));
+    }
+
+    /**
+     * Select rows whose {@code column} matches any of {@code values}, with one
+     * query per chunk of {@value #IN_FILTER_CHUNK_SIZE} values; the chunks are
+     * queried concurrently. Each query is read in pages of {@code supabase.max-rows},
+     * since PostgREST cuts longer results off without an error, and its rows come
+     * in PostgREST {@code order}. Like {@link #selectAll}, a failed query fails the
+     * Mono rather than leaving rows out.
+     */
+    public Mono<JsonNode> selectIn(String table, String column, Collection<String> values, String order) {
+        if (values == null || values.isEmpty()) {
+            return Mono.just(objectMapper.createArrayNode());
+        }
+
+        List<String> pending = new ArrayList<>(values);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += IN_FILTER_CHUNK_SIZE) {
+            chunks.add(pending.subList(start, Math.min(start + IN_FILTER_CHUNK_SIZE, pending.size())));
+        }
+
+        return Flux.fromIterable(chunks)
+            .flatMapSequential(chunk -> getAllPages(() -> tableUri(table)
+                    .queryParam("select", "*")
+                    .queryParam(column, SupabaseService.inFilter(chunk)), order))
+            .collect(objectMapper::createArrayNode, (rows, result) -> {
+                if (result != null && result.isArray()) {
+                    rows.addAll((ArrayNode) result);
+                }
+            })
+            .map(JsonNode.class::cast)
+            .doOnError(e -> logger.error("Supabase selectIn error in table " + table, e));
+    }
+
+    private Mono<JsonNode> get(UriComponentsBuilder uriBuilder) {
+        return webClient.get()
+            .uri(uri(uriBuilder))
+            .retrieve()
+            .bodyToMono(String.class)
+            .timeout(timeout)
+            .map(this::readTree);
+    }
+
+    /**
+     * All rows of a query, requested {@code max-rows} at a time until a short page
+     * comes back. The id is appended to {@code order} as the last sort key so ties
+     * have a fixed order and pages do not overlap.
+     */
+    private Mono<JsonNode> getAllPages(Supplier<UriComponentsBuilder> query, String order) {
+        int pageSize = supabaseProperties.getMaxRows();
+        String pageOrder = order == null || order.isBlank() ? "id.asc" : order + ",id.asc";
+        return getPage(query, pageOrder, 0, pageSize)
+            .expand(page -> page.rows().size() < pageSize ? Mono.empty() : getPage(query, pageOrder, page.offset() + pageSize, pageSize))
+            .collect(objectMapper::createArrayNode, (rows, page) -> rows.addAll(page.rows()))
+            .map(JsonNode.class::cast);
+    }
+
+    private Mono<Page> getPage(Supplier<UriComponentsBuilder> query, String order, int offset, int pageSize) {
+        return get(query.get()
+                .queryParam("order", order)
+                .queryParam("limit", pageSize)
+                .queryParam("offset", offset))
+            .map(result -> new Page(offset, result.isArray() ? (ArrayNode) result : objectMapper.createArrayNode()));
+    }
+
+    private record Page(int offset, ArrayNode rows) {
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid Supabase response: " + e.getMessage(), e);
+        }
+    }
+
+    private UriComponentsBuilder tableUri(String table) {
+        return UriComponentsBuilder.fromHttpUrl(supabaseProperties.getRestUrl() + "/" + table);
+    }
+
+    private URI uri(UriComponentsBuilder uriBuilder) {
+        return uriBuilder.encode().build().toUri();
+    }
+
+    private void addEqualityFilters(UriComponentsBuilder uriBuilder, Map<String, Object> filters) {
+        if (filters != null) {
+            filters.forEach((key, value) -> uriBuilder.queryParam(key, "eq." + value));
+        }
+    }
+
+    private Consumer<HttpHeaders> serviceRoleHeaders() {
+        return headers -> {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("apikey", supabaseProperties.getServiceRoleKey());
+            headers.set("Authorization", "Bearer " + supabaseProperties.getServiceRoleKey());
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.judicial.processes.service;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -16,12 +20,15 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.judicial.processes.config.SupabaseProperties;
 
 @Service
 public class SupabaseService {
     
     private static final Logger logger = LoggerFactory.getLogger(SupabaseService.class);
+
+    private static final int IN_FILTER_CHUNK_SIZE = 100;
     
     @Autowired
     private SupabaseProperties supabaseProperties;
@@ -179,6 +186,36 @@ public class SupabaseService {
             return null;
         }
     }
+
+    /**
+     * List one page of auth users using service role key. Pages start at 1.
+     */
+    public JsonNode listAuthUsers(int page, int perPage) {
+        try {
+            String url = UriComponentsBuilder
+                .fromHttpUrl(supabaseProperties.getAuthUrl() + "/admin/users")
+                .queryParam("page", page)
+                .queryParam("per_page", perPage)
+                .build()
+                .toUriString();
+
+            HttpHeaders headers = createHeaders();
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                JsonNode body = objectMapper.readTree(response.getBody());
+                return body != null && body.has("users") ? body.get("users") : body;
+            }
+
+            logger.error("Supabase admin user list failed with status: {}", response.getStatusCode());
+            return null;
+        } catch (Exception e) {
+            logger.error("Supabase listAuthUsers error", e);
+            return null;
+        }
+    }
     
     /**
      * Sign out user
@@ -266,6 +303,37 @@ public class SupabaseService {
         }
     }
     
+    /**
+     * Insert several rows into Supabase table with one request. All rows must have
+     * the same keys; nothing is returned.
+     */
+    public void insertBatch(String table, List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            String url = supabaseProperties.getRestUrl() + "/" + table;
+
+            HttpHeaders headers = createHeaders();
+            headers.set("Prefer", "return=minimal");
+
+            HttpEntity<List<Map<String, Object>>> request = new HttpEntity<>(rows, headers);
+
+            ResponseEntity<String> response = restTemplate.postForEntity(url, request, String.class);
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                logger.error("Supabase batch insert failed for table {}: {} - Response: {}",
+                    table, response.getStatusCode(), response.getBody());
+                throw new RuntimeException("Batch insert failed with status: " + response.getStatusCode());
+            }
+
+        } catch (Exception e) {
+            logger.error("Supabase batch insert error in table {} ({} rows): {}", table, rows.size(), e.getMessage(), e);
+            throw new RuntimeException("Batch insert failed: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Select data from Supabase table with optional filters
      */
@@ -302,6 +370,84 @@ public class SupabaseService {
         }
     }
     
+    /**
+     * Select rows whose {@code column} matches any of {@code values}, one query
+     * per chunk of {@value #IN_FILTER_CHUNK_SIZE} values to keep URLs short. Each
+     * query is read in pages of {@code supabase.max-rows}, since PostgREST cuts
+     * longer results off without an error, and its rows come in PostgREST
+     * {@code order} (the id breaks ties). Fails with a RuntimeException if any
+     * query fails, rather than returning part of the rows.
+     */
+    public JsonNode selectIn(String table, String column, Collection<String> values, String order) {
+        ArrayNode rows = objectMapper.createArrayNode();
+        if (values == null || values.isEmpty()) {
+            return rows;
+        }
+
+        List<String> pending = new ArrayList<>(values);
+        String pageOrder = order == null || order.isBlank() ? "id.asc" : order + ",id.asc";
+        try {
+            for (int start = 0; start < pending.size(); start += IN_FILTER_CHUNK_SIZE) {
+                List<String> chunk = pending.subList(start, Math.min(start + IN_FILTER_CHUNK_SIZE, pending.size()));
+                int pageSize = supabaseProperties.getMaxRows();
+
+                for (int offset = 0; ; offset += pageSize) {
+                    // Pass a URI so RestTemplate does not encode the quotes a second time
+                    URI url = UriComponentsBuilder
+                        .fromHttpUrl(supabaseProperties.getRestUrl() + "/" + table)
+                        .queryParam("select", "*")
+                        .queryParam(column, inFilter(chunk))
+                        .queryParam("order", pageOrder)
+                        .queryParam("limit", pageSize)
+                        .queryParam("offset", offset)
+                        .encode()
+                        .build()
+                        .toUri();
+
+                    HttpHeaders headers = createHeaders();
+                    HttpEntity<Void> request = new HttpEntity<>(headers);
+
+                    ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
+
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw new RuntimeException("Unexpected status " + response.getStatusCode());
+                    }
+
+                    JsonNode result = objectMapper.readTree(response.getBody());
+                    if (result == null || !result.isArray()) {
+                        throw new RuntimeException("Unexpected response body");
+                    }
+                    rows.addAll((ArrayNode) result);
+
+                    // A short page is the last one
+                    if (result.size() < pageSize) {
+                        break;
+                    }
+                }
+            }
+
+            return rows;
+        } catch (Exception e) {
+            logger.error("Supabase selectIn error in table " + table, e);
+            throw new RuntimeException("Select failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * PostgREST {@code in.(...)} filter matching any of {@code values}
+     */
+    static String inFilter(List<String> values) {
+        StringBuilder inList = new StringBuilder("in.(");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                inList.append(',');
+            }
+            // Quote each value so commas or parentheses cannot break the list
+            inList.append('"').append(values.get(i).replace("\"", "")).append('"');
+        }
+        return inList.append(')').toString();
+    }
+
     /**
      * Select data from Supabase table with limit and ordering
      */
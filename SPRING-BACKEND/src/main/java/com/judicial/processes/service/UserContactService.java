@@ -0,0 +1,139 @@
+package com.judicial.processes.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.judicial.processes.cache.TtlCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Resolves user email addresses for outgoing notifications. Addresses are cached
+ * with a TTL; users without an address are cached for a shorter time so an email
+ * added later is picked up on a following cycle.
+ */
+@Service
+public class UserContactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserContactService.class);
+
+    private static final String NO_EMAIL = "";
+
+    @Autowired
+    private SupabaseService supabaseService;
+
+    @Value("${user-contacts.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${user-contacts.cache.ttl.millis:1800000}")
+    private long ttlMillis;
+
+    @Value("${user-contacts.cache.negative-ttl.millis:300000}")
+    private long negativeTtlMillis;
+
+    @Value("${user-contacts.prefetch.page-size:1000}")
+    private int pageSize;
+
+    @Value("${user-contacts.prefetch.max-pages:50}")
+    private int maxPages;
+
+    private TtlCache<String, String> emailCache;
+
+    @PostConstruct
+    public void init() {
+        emailCache = new TtlCache<>(maxSize, Duration.ofMillis(ttlMillis));
+    }
+
+    /**
+     * Load the addresses of every user in {@code userIds} that is not already
+     * cached, paging through the admin user list instead of fetching each user.
+     */
+    public void prefetch(Collection<String> userIds) {
+        Set<String> missing = new HashSet<>();
+        for (String userId : userIds) {
+            if (emailCache.getIfPresent(userId) == null) {
+                missing.add(userId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        int found = 0;
+        boolean complete = false;
+        for (int page = 1; page <= maxPages && !missing.isEmpty(); page++) {
+            JsonNode users = supabaseService.listAuthUsers(page, pageSize);
+            if (users == null || !users.isArray()) {
+                break;
+            }
+
+            for (JsonNode user : users) {
+                String userId = user.path("id").asText(null);
+                if (userId != null && missing.remove(userId)) {
+                    cacheEmail(userId, user.path("email").asText(null));
+                    found++;
+                }
+            }
+
+            if (users.size() < pageSize) {
+                complete = true;
+                break;
+            }
+        }
+
+        if (missing.isEmpty()) {
+            logger.debug("Prefetched {} user contacts", found);
+            return;
+        }
+        if (!complete) {
+            // The listing was cut short (page cap, failed or malformed page), so the
+            // remaining users may still exist; leave them to resolveEmail
+            logger.warn("User contact prefetch stopped early with {} users unresolved", missing.size());
+            return;
+        }
+
+        for (String userId : missing) {
+            cacheEmail(userId, null);
+        }
+        logger.debug("Prefetched {} user contacts ({} without a matching user)", found, missing.size());
+    }
+
+    public String resolveEmail(String userId) {
+        String cached = emailCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached.isEmpty() ? null : cached;
+        }
+
+        JsonNode userNode = supabaseService.getAuthUserById(userId);
+        if (userNode == null) {
+            // Lookup failed; do not cache so the next call retries
+            return null;
+        }
+
+        String email = userNode.path("email").asText(null);
+        cacheEmail(userId, email);
+        return email == null || email.isBlank() ? null : email;
+    }
+
+    public void invalidate(String userId) {
+        emailCache.invalidate(userId);
+    }
+
+    private void cacheEmail(String userId, String email) {
+        if (email == null || email.isBlank()) {
+            emailCache.put(userId, NO_EMAIL, Duration.ofMillis(negativeTtlMillis));
+        } else {
+            emailCache.put(userId, email);
+        }
+    }
+}